@@ -1,23 +1,96 @@
 package com.forum.config;
 
+import com.forum.websocket.IndexedSubscriptionRegistry;
+import com.forum.websocket.OutboundSessionPolicy;
+import com.forum.websocket.PolicySubProtocolWebSocketHandler;
+import com.forum.websocket.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private OutboundSessionPolicy outboundSessionPolicy;
+
     @Override
     public void configureMessageBroker(@SuppressWarnings("null") MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        // Per-user notifications go to /user/queue/..., resolved to one queue per session of that user
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        config.setUserDestinationPrefix("/user");
     }
 
     @Override
     public void registerStompEndpoints(@SuppressWarnings("null") StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
     }
+
+    /**
+     * Only the inbound message size is set here. Send time and buffer limits belong to
+     * {@link OutboundSessionPolicy}, which decorates every STOMP session in place of the
+     * framework decorator those settings would configure.
+     */
+    @Override
+    public void configureWebSocketTransport(@SuppressWarnings("null") WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(outboundSessionPolicy.getMessageSizeLimit());
+    }
+
+    @Override
+    public void configureClientInboundChannel(@SuppressWarnings("null") ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    /**
+     * Swaps the simple broker's subscription registry for one that looks up exact destinations by hash.
+     */
+    @Bean
+    public static BeanPostProcessor subscriptionRegistryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler broker) {
+                    broker.setSubscriptionRegistry(new IndexedSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Swaps the STOMP WebSocket handler for one whose sessions follow {@link OutboundSessionPolicy}.
+     */
+    @Bean
+    public static BeanPostProcessor outboundSessionPolicyPostProcessor(BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean.getClass() == SubProtocolWebSocketHandler.class) {
+                    return new PolicySubProtocolWebSocketHandler(
+                            beanFactory.getBean("clientInboundChannel", MessageChannel.class),
+                            beanFactory.getBean("clientOutboundChannel", SubscribableChannel.class),
+                            beanFactory.getBean(OutboundSessionPolicy.class));
+                }
+                return bean;
+            }
+        };
+    }
 }
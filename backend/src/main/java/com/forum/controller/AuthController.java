@@ -2,17 +2,29 @@ package com.forum.controller;
 
 import com.forum.dto.RegisterRequest;
 import com.forum.dto.LoginRequest;
+import com.forum.dto.RefreshRequest;
+import com.forum.model.User;
+import com.forum.service.LoginSync;
 import com.forum.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import com.forum.dto.JwtResponse;
 import com.forum.security.jwt.JwtUtils;
+import com.forum.security.services.BoundedPasswordEncoder;
+import com.forum.security.services.RefreshTokenService;
+import com.forum.security.services.UserDetailsImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Controller for handling authentication requests (registration, login).
  */
@@ -25,6 +37,12 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
     @Autowired
     private JwtUtils jwtUtils;
+    @Autowired
+    private LoginSync loginSync;
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     /**
      * Registers a new user.
@@ -35,42 +53,108 @@ public class AuthController {
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         try {
             return ResponseEntity.ok(userService.register(request));
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     /**
-     * Authenticates a user and generates a JWT token.
+     * Authenticates a user and generates a short-lived JWT plus a refresh token.
      * @param request The login credentials.
-     * @return A JWT response containing the token and user details.
+     * @return A JWT response containing the tokens and user details.
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
         try {
-            // Sync student data with university database if applicable
-            userService.syncStudentData(request.getEmail());
-            
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            Authentication authentication;
+            boolean synced = false;
+            try {
+                authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            } catch (DisabledException e) {
+                // Students on the university roster are verified by the sync, so run it now and retry once
+                userService.syncStudentData(request.getEmail());
+                synced = true;
+                authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+            }
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
+            JwtUtils.IssuedToken jwt = jwtUtils.issueAccessToken((UserDetailsImpl) authentication.getPrincipal());
             
             var user = userService.findByEmail(request.getEmail());
+            if (!synced) {
+                // Sync student data with university database if applicable, off the request thread
+                loginSync.submit(user);
+            }
             
-            return ResponseEntity.ok(new JwtResponse(jwt, 
-                    user.getId(), 
-                    user.getEmail(), 
-                    user.getFirstName(), 
-                    user.getLastName(), 
-                    user.getRole(),
-                    user.getNickname(),
-                    user.getGroupName(),
-                    user.getStudyYear(),
-                    user.getSemester()));
+            return ResponseEntity.ok(toResponse(jwt.token(), refreshTokenService.create(user.getId(), jwt), user));
+        } catch (RejectedExecutionException e) {
+            return busy();
+        } catch (InternalAuthenticationServiceException e) {
+            // The provider wraps a saturated hashing pool hit while looking up the user
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return busy();
+            }
+            return ResponseEntity.status(401).body("Invalid credentials or account not verified");
         } catch (Exception e) {
             return ResponseEntity.status(401).body("Invalid credentials or account not verified");
         }
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * The presented refresh token cannot be used again.
+     * @param request The refresh token from the last login or refresh.
+     * @return A JWT response containing the new tokens and user details.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+            return ResponseEntity.ok(toResponse(rotation.access().token(), rotation.refreshToken(), rotation.user()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Revokes the refresh token and the access token issued with it.
+     * @param request The refresh token of the session to end.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshRequest request) {
+        try {
+            refreshTokenService.revoke(request.getRefreshToken());
+        } catch (IllegalArgumentException e) {
+            // Unknown or already purged; the session is gone either way
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    private JwtResponse toResponse(String jwt, String refreshToken, User user) {
+        JwtResponse response = new JwtResponse(jwt,
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getRole(),
+                user.getNickname(),
+                user.getGroupName(),
+                user.getStudyYear(),
+                user.getSemester());
+        response.setRefreshToken(refreshToken);
+        return response;
+    }
+
+    /**
+     * Password hashing is saturated; tells the client when to try again.
+     */
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordEncoder.getRetryAfterSeconds()))
+                .body("Server is busy, please try again shortly");
+    }
 }
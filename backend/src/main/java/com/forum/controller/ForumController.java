@@ -6,9 +6,12 @@ import com.forum.dto.PostResponse;
 import com.forum.dto.CommentResponse;
 import com.forum.service.ForumService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 import java.util.Map;
 
@@ -32,15 +35,56 @@ public class ForumController {
     }
     
     /**
-     * Retrieves posts for a specific forum.
+     * Retrieves all posts for a specific forum (compatibility mode, unpaged).
+     * Answers a matching If-None-Match with 304 without building the list.
      * @param forumId The ID of the forum.
      * @return List of posts in the forum.
      */
     @GetMapping("/{forumId}/posts")
-    public ResponseEntity<List<PostResponse>> getPosts(@PathVariable Long forumId) {
-        return ResponseEntity.ok(forumService.getPosts(forumId));
+    public ResponseEntity<List<PostResponse>> getPosts(@PathVariable Long forumId, WebRequest request) {
+        String etag = forumService.getPostsETag(forumId);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(forumService.getPosts(forumId));
+    }
+
+    /**
+     * Retrieves one page of posts for a specific forum.
+     * @param forumId The ID of the forum.
+     * @param cursor Continuation token from the previous page, omitted for the first page.
+     * @param size Optional page size, capped by the server.
+     * @return The page of posts and the cursor for the next page.
+     */
+    @GetMapping("/{forumId}/posts/page")
+    public ResponseEntity<?> getPostsPage(@PathVariable Long forumId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(forumService.getPostsPage(forumId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
+    /**
+     * Retrieves one page of post summaries for a forum listing, without comments.
+     * @param forumId The ID of the forum.
+     * @param cursor Continuation token from the previous page, omitted for the first page.
+     * @param size Optional page size, capped by the server.
+     * @return The page of post summaries and the cursor for the next page.
+     */
+    @GetMapping("/{forumId}/posts/summaries")
+    public ResponseEntity<?> getPostSummaries(@PathVariable Long forumId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(forumService.getPostSummaries(forumId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Creates a new post in a forum.
      * @param forumId The ID of the forum.
@@ -55,12 +99,42 @@ public class ForumController {
     
     /**
      * Retrieves a specific post by ID.
+     * Answers a matching If-None-Match with 304 without building the post.
      * @param postId The ID of the post.
+     * @param maxDepth Optional number of comment levels to include.
+     * @param replyLimit Optional number of comments to include per level.
      * @return The post details.
      */
     @GetMapping("/posts/{postId}")
-    public ResponseEntity<PostResponse> getPost(@PathVariable Long postId) {
-        return ResponseEntity.ok(forumService.getPost(postId));
+    public ResponseEntity<PostResponse> getPost(@PathVariable Long postId,
+                                                @RequestParam(required = false) Integer maxDepth,
+                                                @RequestParam(required = false) Integer replyLimit,
+                                                WebRequest request) {
+        String etag = forumService.getPostETag(postId, maxDepth, replyLimit);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(forumService.getPost(postId, maxDepth, replyLimit));
+    }
+
+    /**
+     * Retrieves the next slice of a post's comment thread.
+     * @param postId The ID of the post.
+     * @param cursor Continuation token from a truncated comment or previous slice; omitted for the top level.
+     * @param maxDepth Optional number of comment levels to include.
+     * @param replyLimit Optional number of comments to include per level.
+     * @return The slice of comments and the cursor for the next slice.
+     */
+    @GetMapping("/posts/{postId}/comments")
+    public ResponseEntity<?> getCommentThread(@PathVariable Long postId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer maxDepth,
+                                              @RequestParam(required = false) Integer replyLimit) {
+        try {
+            return ResponseEntity.ok(forumService.getCommentThread(postId, cursor, maxDepth, replyLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     /**
@@ -84,12 +158,17 @@ public class ForumController {
      * @param postId The ID of the post.
      * @param value The vote value (1 or -1).
      * @param authentication The current user's authentication.
-     * @return A success message.
+     * @return The post's new score and the caller's current vote.
      */
     @PostMapping("/posts/{postId}/vote")
     public ResponseEntity<?> votePost(@PathVariable Long postId, @RequestParam int value, Authentication authentication) {
-        forumService.votePost(postId, value, authentication.getName());
-        return ResponseEntity.ok("Voted");
+        try {
+            return ResponseEntity.ok(forumService.votePost(postId, value, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Vote changed concurrently, please retry");
+        }
     }
 
     /**
@@ -97,12 +176,17 @@ public class ForumController {
      * @param commentId The ID of the comment.
      * @param value The vote value (1 or -1).
      * @param authentication The current user's authentication.
-     * @return A success message.
+     * @return The comment's new score and the caller's current vote.
      */
     @PostMapping("/comments/{commentId}/vote")
     public ResponseEntity<?> voteComment(@PathVariable Long commentId, @RequestParam int value, Authentication authentication) {
-        forumService.voteComment(commentId, value, authentication.getName());
-        return ResponseEntity.ok("Voted");
+        try {
+            return ResponseEntity.ok(forumService.voteComment(commentId, value, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body("Vote changed concurrently, please retry");
+        }
     }
 
     /**
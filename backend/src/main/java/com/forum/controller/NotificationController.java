@@ -1,7 +1,8 @@
 package com.forum.controller;
 
-import com.forum.dto.NotificationDto;
+import com.forum.dto.MarkReadRequest;
 import com.forum.model.User;
+import com.forum.service.ForumService;
 import com.forum.service.NotificationService;
 import com.forum.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -18,19 +19,74 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ForumService forumService;
+
     @Autowired
     private UserRepository userRepository;
 
+    /**
+     * Retrieves one page of the current user's notifications and forum announcements, newest first.
+     * @param cursor Continuation token from the previous page, omitted for the first page.
+     * @param size Optional page size, capped by the server.
+     * @return The page of notifications and the cursor for the next page.
+     */
     @GetMapping
-    public ResponseEntity<List<NotificationDto>> getNotifications(Authentication authentication) {
+    public ResponseEntity<?> getNotifications(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              Authentication authentication) {
         User user = userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(notificationService.getUserNotifications(user));
+        try {
+            return ResponseEntity.ok(notificationService.getNotificationsPage(user, forumService.getStudentForumIds(user), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the current user's unread notification count for the badge.
+     */
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(Map.of("count", notificationService.getUnreadCount(user, forumService.getStudentForumIds(user))));
     }
 
     @PostMapping("/{id}/read")
-    public ResponseEntity<?> markAsRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+    public ResponseEntity<?> markAsRead(@PathVariable Long id, Authentication authentication) {
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        notificationService.markAsRead(user, id);
         return ResponseEntity.ok("Marked as read");
     }
+
+    /**
+     * Marks an announcement and every older one as read.
+     */
+    @PostMapping("/announcements/{id}/read")
+    public ResponseEntity<?> markAnnouncementsAsRead(@PathVariable Long id, Authentication authentication) {
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        notificationService.markAnnouncementsRead(user, id);
+        return ResponseEntity.ok("Marked as read");
+    }
+
+    /**
+     * Marks several notifications as read in one update.
+     * @param request Explicit ids, or a (timestamp, id) watermark to mark everything up to it,
+     *                and optionally the newest announcement to mark read.
+     * @return The new unread count.
+     */
+    @PostMapping("/read")
+    public ResponseEntity<?> markManyAsRead(@RequestBody MarkReadRequest request, Authentication authentication) {
+        User user = userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            return ResponseEntity.ok(Map.of("count", notificationService.markAsRead(user, forumService.getStudentForumIds(user), request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
@@ -20,4 +20,14 @@ public class CommentResponse {
     private int score;
     private Long parentId;
     private List<CommentResponse> replies;
+    // Total direct replies, which may exceed replies.size() when the thread is truncated
+    private int replyCount;
+    // Continuation token for the replies not included, null when none were cut
+    private String repliesCursor;
+
+    public CommentResponse(Long id, String content, AuthorDto author, Long postId, LocalDateTime timestamp,
+                           LocalDateTime editedAt, int score, Long parentId, List<CommentResponse> replies) {
+        this(id, content, author, postId, timestamp, editedAt, score, parentId, replies,
+                replies != null ? replies.size() : 0, null);
+    }
 }
@@ -0,0 +1,28 @@
+package com.forum.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Compact change event pushed on /topic/posts/{postId} and /topic/forums/{forumId}.
+ * Only the fields relevant to {@code type} are set; the rest are omitted from the JSON.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ForumDelta {
+    private String type;
+    private Long forumId;
+    private Long postId;
+    private Long commentId;
+    private Long parentId;
+    private Integer score;
+    private String content;
+    private LocalDateTime editedAt;
+    private PostResponse post;
+    private CommentResponse comment;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 @Data
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private Long id;
     private String email;
     private String firstName;
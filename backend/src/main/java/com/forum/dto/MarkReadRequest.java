@@ -0,0 +1,17 @@
+package com.forum.dto;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Notifications to mark as read: explicit ids, or everything up to and including a
+ * (timestamp, id) watermark in inbox order. Announcements are marked read up to
+ * {@code announcementUpToId}, on their own or together with notifications.
+ */
+@Data
+public class MarkReadRequest {
+    private List<Long> ids;
+    private LocalDateTime upToTimestamp;
+    private Long upToId;
+    private Long announcementUpToId;
+}
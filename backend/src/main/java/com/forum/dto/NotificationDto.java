@@ -15,4 +15,16 @@ public class NotificationDto {
     private Long relatedEntityId;
     private boolean isRead;
     private LocalDateTime timestamp;
+    private int count = 1;
+    // Set on announcements only, whose read state is tracked per forum
+    private Long forumId;
+
+    public NotificationDto(Long id, String message, String type, Long relatedEntityId, boolean isRead, LocalDateTime timestamp) {
+        this(id, message, type, relatedEntityId, isRead, timestamp, 1);
+    }
+
+    public NotificationDto(Long id, String message, String type, Long relatedEntityId, boolean isRead,
+                           LocalDateTime timestamp, int count) {
+        this(id, message, type, relatedEntityId, isRead, timestamp, count, null);
+    }
 }
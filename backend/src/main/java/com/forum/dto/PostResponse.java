@@ -20,4 +20,14 @@ public class PostResponse {
     private boolean isPinned;
     private int score;
     private List<CommentResponse> comments;
+    // Total comments at any depth, counted like PostSummary.commentCount
+    private int commentCount;
+    // Continuation token for the top-level comments not included, null when none were cut
+    private String commentsCursor;
+
+    public PostResponse(Long id, String title, String content, AuthorDto author, Long forumId, LocalDateTime timestamp,
+                        LocalDateTime editedAt, boolean isPinned, int score, List<CommentResponse> comments) {
+        this(id, title, content, author, forumId, timestamp, editedAt, isPinned, score, comments,
+                comments != null ? comments.size() : 0, null);
+    }
 }
@@ -0,0 +1,20 @@
+package com.forum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSummary {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private AuthorDto author;
+    private int score;
+    private boolean isPinned;
+    private long commentCount;
+    private LocalDateTime lastActivity;
+}
@@ -0,0 +1,15 @@
+package com.forum.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VoteResponse {
+    private Long targetId;
+    private int score;
+    // The caller's vote after this request: 1, -1, or 0 when withdrawn
+    private int userVote;
+}
@@ -0,0 +1,29 @@
+package com.forum.event;
+
+import com.forum.dto.ForumDelta;
+
+/**
+ * Published whenever a post or one of its comments changes. Listeners that run
+ * after commit (caches, version counters, live updates) use it to react precisely.
+ * @param postId The affected post.
+ * @param forumId The post's forum, or {@code null} when not known to the publisher.
+ * @param change What happened.
+ * @param delta The change as pushed to live subscribers, or {@code null} if it is not pushed.
+ */
+public record PostChangedEvent(Long postId, Long forumId, Change change, ForumDelta delta) {
+
+    public PostChangedEvent(Long postId, Long forumId, Change change) {
+        this(postId, forumId, change, null);
+    }
+
+    public enum Change {
+        CREATED,
+        EDITED,
+        DELETED,
+        VOTED,
+        COMMENT_ADDED,
+        COMMENT_EDITED,
+        COMMENT_DELETED,
+        COMMENT_VOTED
+    }
+}
@@ -0,0 +1,34 @@
+package com.forum.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A notification for everyone in a forum, stored once and merged into each member's inbox on read.
+ */
+@Entity
+@Table(name = "announcements", indexes = {
+    @Index(name = "idx_announcements_forum_time", columnList = "forum_id, timestamp, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Announcement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // A plain id like relatedEntityId, so removing a forum is not blocked by its announcements
+    @Column(name = "forum_id", nullable = false)
+    private Long forumId;
+
+    @Column(nullable = false)
+    private String message;
+
+    private Long relatedEntityId;
+
+    private LocalDateTime timestamp = LocalDateTime.now();
+}
@@ -0,0 +1,39 @@
+package com.forum.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * How far a user has read one forum's announcements: every announcement of that forum
+ * with an id up to {@code lastReadId} counts as read.
+ */
+@Entity
+@Table(name = "forum_announcement_watermarks")
+@IdClass(AnnouncementWatermark.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnouncementWatermark {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "forum_id")
+    private Long forumId;
+
+    @Column(name = "last_read_id", nullable = false)
+    private long lastReadId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long forumId;
+    }
+}
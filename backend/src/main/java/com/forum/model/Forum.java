@@ -41,6 +41,7 @@ public class Forum {
     private java.util.List<Post> posts;
 
     @ManyToMany
+    @com.fasterxml.jackson.annotation.JsonIgnore
     @JoinTable(
         name = "forum_allowed_users",
         joinColumns = @JoinColumn(name = "forum_id"),
@@ -7,7 +7,11 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_recipient_time", columnList = "user_id, timestamp, id"),
+    @Index(name = "idx_notifications_recipient_read", columnList = "user_id, is_read"),
+    @Index(name = "idx_notifications_read_time", columnList = "is_read, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,5 +33,9 @@ public class Notification {
 
     private boolean isRead = false;
 
+    // Number of coalesced events this notification stands for
+    @Column(nullable = false, columnDefinition = "int default 1")
+    private int count = 1;
+
     private LocalDateTime timestamp = LocalDateTime.now();
 }
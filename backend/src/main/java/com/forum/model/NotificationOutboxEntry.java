@@ -0,0 +1,37 @@
+package com.forum.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting to be delivered. Written with the change that caused it and deleted
+ * in the transaction that inserts the notification row.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notification_outbox_timestamp", columnList = "timestamp"),
+    @Index(name = "idx_notification_outbox_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long recipientId;
+
+    @Column(nullable = false)
+    private String message;
+
+    private String type;
+
+    private Long relatedEntityId;
+
+    private LocalDateTime timestamp;
+}
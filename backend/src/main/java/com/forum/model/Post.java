@@ -26,7 +26,7 @@ public class Post {
     @Column(columnDefinition = "TEXT")
     private String content; 
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
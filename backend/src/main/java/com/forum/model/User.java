@@ -10,6 +10,8 @@ import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.forum.model.university.UniversityCourse;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "users")
 @Data
@@ -52,6 +54,16 @@ public class User {
     private Integer studyYear;
     private Integer semester; 
 
+    // When the university roster sync last ran for this student, so logins can skip it for a while
+    @JsonIgnore
+    @Column(name = "roster_synced_at")
+    private LocalDateTime rosterSyncedAt;
+
+    // Carried in issued tokens; bumping it invalidates every token issued before
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false, columnDefinition = "int default 0")
+    private int tokenVersion = 0;
+
     @ManyToMany(mappedBy = "enrolledUsers")
     @JsonIgnore
     private java.util.List<UniversityCourse> courses;
@@ -6,7 +6,10 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@Table(name = "votes")
+@Table(name = "votes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_votes_user_post", columnNames = {"user_id", "post_id"}),
+    @UniqueConstraint(name = "uk_votes_user_comment", columnNames = {"user_id", "comment_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
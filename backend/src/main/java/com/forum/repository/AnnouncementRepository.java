@@ -0,0 +1,33 @@
+package com.forum.repository;
+
+import com.forum.model.Announcement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
+
+    // Served by idx_announcements_forum_time
+    @Query("SELECT a FROM Announcement a WHERE a.forumId IN :forumIds ORDER BY a.timestamp DESC, a.id DESC")
+    List<Announcement> findFirstPageByForumIdIn(@Param("forumIds") Collection<Long> forumIds, Limit limit);
+
+    @Query("SELECT a FROM Announcement a WHERE a.forumId IN :forumIds " +
+           "AND (a.timestamp < :timestamp OR (a.timestamp = :timestamp AND a.id < :id)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<Announcement> findPageByForumIdInBefore(@Param("forumIds") Collection<Long> forumIds,
+                                                @Param("timestamp") LocalDateTime timestamp,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    // Each forum counted against the user's watermark for that forum; unread forums count from zero
+    @Query("SELECT COUNT(a) FROM Announcement a LEFT JOIN AnnouncementWatermark w " +
+           "ON w.userId = :userId AND w.forumId = a.forumId " +
+           "WHERE a.forumId IN :forumIds AND a.id > COALESCE(w.lastReadId, 0)")
+    long countUnread(@Param("userId") Long userId, @Param("forumIds") Collection<Long> forumIds);
+}
@@ -0,0 +1,34 @@
+package com.forum.repository;
+
+import com.forum.model.AnnouncementWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnnouncementWatermarkRepository extends JpaRepository<AnnouncementWatermark, AnnouncementWatermark.Key> {
+
+    List<AnnouncementWatermark> findByUserIdAndForumIdIn(Long userId, Collection<Long> forumIds);
+
+    // One statement creates the row or moves it forward; a watermark never moves back
+    @Modifying
+    @Query(value = "INSERT INTO forum_announcement_watermarks (user_id, forum_id, last_read_id) " +
+                   "VALUES (:userId, :forumId, :id) " +
+                   "ON DUPLICATE KEY UPDATE last_read_id = GREATEST(last_read_id, VALUES(last_read_id))",
+           nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("forumId") Long forumId, @Param("id") long id);
+
+    // Moves each forum's watermark to that forum's newest announcement up to the given id
+    @Modifying
+    @Query(value = "INSERT INTO forum_announcement_watermarks (user_id, forum_id, last_read_id) " +
+                   "SELECT :userId, a.forum_id, MAX(a.id) FROM announcements a " +
+                   "WHERE a.forum_id IN (:forumIds) AND a.id <= :id GROUP BY a.forum_id " +
+                   "ON DUPLICATE KEY UPDATE last_read_id = GREATEST(last_read_id, VALUES(last_read_id))",
+           nativeQuery = true)
+    int advanceUpTo(@Param("userId") Long userId, @Param("forumIds") Collection<Long> forumIds, @Param("id") long id);
+}
@@ -0,0 +1,9 @@
+package com.forum.repository;
+
+/**
+ * Number of comments of one post, replies included.
+ */
+public interface CommentCountView {
+    Long getPostId();
+    long getCommentCount();
+}
@@ -0,0 +1,9 @@
+package com.forum.repository;
+
+/**
+ * Ids of the post and forum a comment belongs to.
+ */
+public interface CommentParentView {
+    Long getPostId();
+    Long getForumId();
+}
@@ -1,9 +1,94 @@
 package com.forum.repository;
 
 import com.forum.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdOrderByIsPinnedDescScoreDescTimestampDesc(Long postId);
+
+    String ROW_SELECT = "SELECT c.id AS id, c.parent.id AS parentId, c.post.id AS postId, c.content AS content, " +
+           "c.isPinned AS pinned, c.score AS score, c.timestamp AS timestamp, c.editedAt AS editedAt, " +
+           "a.id AS authorId, a.role AS authorRole, a.firstName AS authorFirstName, " +
+           "a.lastName AS authorLastName, a.nickname AS authorNickname, a.email AS authorEmail " +
+           "FROM Comment c JOIN c.author a ";
+
+    // Top-level comments: pinned first, then by score, then newest first
+    String TOP_LEVEL_ORDER = " ORDER BY c.isPinned DESC, c.score DESC, c.timestamp DESC, c.id DESC";
+
+    // Keyset continuation: rows strictly after (pinned, score, timestamp, id) in top-level order
+    String TOP_LEVEL_AFTER = " AND (" +
+            "(:pinned = true AND c.isPinned = false) OR " +
+            "(c.isPinned = :pinned AND (c.score < :score " +
+            "OR (c.score = :score AND c.timestamp < :timestamp) " +
+            "OR (c.score = :score AND c.timestamp = :timestamp AND c.id < :id))))";
+
+    // Replies: oldest first
+    String REPLY_ORDER = " ORDER BY c.timestamp ASC, c.id ASC";
+
+    String REPLY_AFTER = " AND (c.timestamp > :timestamp OR (c.timestamp = :timestamp AND c.id > :id))";
+
+    @Query(ROW_SELECT + "WHERE c.post.id = :postId AND c.parent IS NULL" + TOP_LEVEL_ORDER)
+    List<CommentRowView> findTopLevelFirstPage(@Param("postId") Long postId, Limit limit);
+
+    // Ids of the first `limit` top-level comments of each post, ranked per post in top-level order
+    @Query(value = "SELECT ranked.id FROM (SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.post_id " +
+                   "ORDER BY c.is_pinned DESC, c.score DESC, c.timestamp DESC, c.id DESC) AS row_num " +
+                   "FROM comments c WHERE c.post_id IN (:postIds) AND c.parent_id IS NULL) ranked " +
+                   "WHERE ranked.row_num <= :limit",
+           nativeQuery = true)
+    List<Long> findTopLevelFirstPageIds(@Param("postIds") Collection<Long> postIds, @Param("limit") int limit);
+
+    @Query(ROW_SELECT + "WHERE c.id IN :ids" + TOP_LEVEL_ORDER)
+    List<CommentRowView> findTopLevelByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(ROW_SELECT + "WHERE c.post.id = :postId AND c.parent IS NULL" + TOP_LEVEL_AFTER + TOP_LEVEL_ORDER)
+    List<CommentRowView> findTopLevelAfter(@Param("postId") Long postId,
+                                           @Param("pinned") boolean pinned,
+                                           @Param("score") int score,
+                                           @Param("timestamp") LocalDateTime timestamp,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    @Query(ROW_SELECT + "WHERE c.post.id = :postId AND c.parent.id = :parentId" + REPLY_ORDER)
+    List<CommentRowView> findRepliesFirstPage(@Param("postId") Long postId, @Param("parentId") Long parentId, Limit limit);
+
+    @Query(ROW_SELECT + "WHERE c.post.id = :postId AND c.parent.id = :parentId" + REPLY_AFTER + REPLY_ORDER)
+    List<CommentRowView> findRepliesAfter(@Param("postId") Long postId,
+                                          @Param("parentId") Long parentId,
+                                          @Param("timestamp") LocalDateTime timestamp,
+                                          @Param("id") Long id,
+                                          Limit limit);
+
+    // All replies of the given parents; only called for parents known to have at most a page of them
+    @Query(ROW_SELECT + "WHERE c.parent.id IN :parentIds" + REPLY_ORDER)
+    List<CommentRowView> findAllByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
+
+    @Query("SELECT c.parent.id AS parentId, COUNT(c) AS replyCount FROM Comment c " +
+           "WHERE c.parent.id IN :parentIds GROUP BY c.parent.id")
+    List<ReplyCountView> countRepliesByParentIdIn(@Param("parentIds") Collection<Long> parentIds);
+
+    long countByPostId(Long postId);
+
+    @Query("SELECT c.post.id AS postId, COUNT(c) AS commentCount FROM Comment c " +
+           "WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<CommentCountView> countByPostIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // Applied in the database so concurrent votes never overwrite each other
+    @Modifying
+    @Query("UPDATE Comment c SET c.score = c.score + :delta WHERE c.id = :id")
+    int addToScore(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT c.score FROM Comment c WHERE c.id = :id")
+    Optional<Integer> findScoreById(@Param("id") Long id);
+
+    @Query("SELECT c.post.id AS postId, c.post.forum.id AS forumId FROM Comment c WHERE c.id = :id")
+    Optional<CommentParentView> findParentById(@Param("id") Long id);
 }
@@ -0,0 +1,25 @@
+package com.forum.repository;
+
+import com.forum.model.Role;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a comment with its author, used to assemble slices of a post's
+ * comment thread level by level.
+ */
+public interface CommentRowView {
+    Long getId();
+    Long getParentId();
+    Long getPostId();
+    String getContent();
+    boolean getPinned();
+    int getScore();
+    LocalDateTime getTimestamp();
+    LocalDateTime getEditedAt();
+    Long getAuthorId();
+    Role getAuthorRole();
+    String getAuthorFirstName();
+    String getAuthorLastName();
+    String getAuthorNickname();
+    String getAuthorEmail();
+}
@@ -18,4 +18,7 @@ public interface ForumRepository extends JpaRepository<Forum, Long> {
     
     
     List<Forum> findByProfessorId(Long professorId);
+
+    // Resolved through the forum_allowed_users join table
+    List<Forum> findByAllowedUsersId(Long userId);
 }
@@ -0,0 +1,20 @@
+package com.forum.repository;
+
+import com.forum.model.NotificationOutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+    List<NotificationOutboxEntry> findByTimestampBeforeOrderByIdAsc(LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntry e WHERE e.recipientId = :recipientId")
+    int deleteByRecipientId(@Param("recipientId") Long recipientId);
+}
@@ -1,12 +1,60 @@
 package com.forum.repository;
 
 import com.forum.model.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientIdOrderByTimestampDesc(Long userId);
     List<Notification> findByRecipientIdAndIsReadFalseOrderByTimestampDesc(Long userId);
+
+    // Served by idx_notifications_recipient_time
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.timestamp DESC, n.id DESC")
+    List<Notification> findFirstPageByRecipientId(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :userId " +
+           "AND (n.timestamp < :timestamp OR (n.timestamp = :timestamp AND n.id < :id)) " +
+           "ORDER BY n.timestamp DESC, n.id DESC")
+    List<Notification> findPageByRecipientIdBefore(@Param("userId") Long userId,
+                                                  @Param("timestamp") LocalDateTime timestamp,
+                                                  @Param("id") Long id,
+                                                  Limit limit);
+
+    // Served by idx_notifications_recipient_read
+    long countByRecipientIdAndIsReadFalse(Long userId);
+
+    // Retention: served by idx_notifications_read_time
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.timestamp < :cutoff ORDER BY n.timestamp")
+    List<Long> findReadIdsBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Query("SELECT n.recipient.id FROM Notification n GROUP BY n.recipient.id HAVING COUNT(n) > :cap")
+    List<Long> findRecipientIdsWithMoreThan(@Param("cap") long cap);
+
+    // Served by idx_notifications_recipient_time
+    @Query("SELECT n.id FROM Notification n WHERE n.recipient.id = :userId ORDER BY n.timestamp DESC, n.id DESC")
+    List<Long> findIdsByRecipientIdNewestFirst(@Param("userId") Long userId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.recipient.id = :userId AND n.isRead = false AND n.id IN :ids")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.recipient.id = :userId AND n.isRead = false " +
+           "AND (n.timestamp < :timestamp OR (n.timestamp = :timestamp AND n.id <= :id))")
+    int markReadUpTo(@Param("userId") Long userId,
+                     @Param("timestamp") LocalDateTime timestamp,
+                     @Param("id") Long id);
 }
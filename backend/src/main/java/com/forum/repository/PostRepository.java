@@ -1,10 +1,69 @@
 package com.forum.repository;
 
 import com.forum.model.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
+    int EXCERPT_LENGTH = 200;
+
+    String LISTING_ORDER = " ORDER BY p.isPinned DESC, p.score DESC, p.timestamp DESC, p.id DESC";
+
+    // Keyset continuation: rows strictly after (pinned, score, timestamp, id) in listing order
+    String AFTER_CURSOR = " AND (" +
+            "(:pinned = true AND p.isPinned = false) OR " +
+            "(p.isPinned = :pinned AND (p.score < :score " +
+            "OR (p.score = :score AND p.timestamp < :timestamp) " +
+            "OR (p.score = :score AND p.timestamp = :timestamp AND p.id < :id))))";
+
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.title AS title, " +
+            "SUBSTRING(p.content, 1, " + (EXCERPT_LENGTH + 1) + ") AS excerpt, " +
+            "p.isPinned AS pinned, p.score AS score, p.timestamp AS timestamp, p.editedAt AS editedAt, " +
+            "a.id AS authorId, a.role AS authorRole, a.firstName AS authorFirstName, " +
+            "a.lastName AS authorLastName, a.nickname AS authorNickname, a.email AS authorEmail, " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.post = p) AS commentCount, " +
+            "(SELECT MAX(c.timestamp) FROM Comment c WHERE c.post = p) AS lastCommentAt " +
+            "FROM Post p JOIN p.author a ";
+
     List<Post> findByForumIdOrderByIsPinnedDescScoreDescTimestampDesc(Long forumId);
-    
+
+    // Applied in the database so concurrent votes never overwrite each other
+    @Modifying
+    @Query("UPDATE Post p SET p.score = p.score + :delta WHERE p.id = :id")
+    int addToScore(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("SELECT p.score FROM Post p WHERE p.id = :id")
+    Optional<Integer> findScoreById(@Param("id") Long id);
+
+    @Query("SELECT p.forum.id FROM Post p WHERE p.id = :id")
+    Optional<Long> findForumIdById(@Param("id") Long id);
+
+    // Author and forum are fetched with the page so mapping it never loads them one post at a time
+    @Query("SELECT p FROM Post p JOIN FETCH p.author JOIN FETCH p.forum WHERE p.forum.id = :forumId" + LISTING_ORDER)
+    List<Post> findFirstPageByForumId(@Param("forumId") Long forumId, Limit limit);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author JOIN FETCH p.forum WHERE p.forum.id = :forumId" + AFTER_CURSOR + LISTING_ORDER)
+    List<Post> findPageByForumIdAfter(@Param("forumId") Long forumId,
+                                      @Param("pinned") boolean pinned,
+                                      @Param("score") int score,
+                                      @Param("timestamp") LocalDateTime timestamp,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.forum.id = :forumId" + LISTING_ORDER)
+    List<PostSummaryView> findSummariesFirstPageByForumId(@Param("forumId") Long forumId, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE p.forum.id = :forumId" + AFTER_CURSOR + LISTING_ORDER)
+    List<PostSummaryView> findSummariesByForumIdAfter(@Param("forumId") Long forumId,
+                                                      @Param("pinned") boolean pinned,
+                                                      @Param("score") int score,
+                                                      @Param("timestamp") LocalDateTime timestamp,
+                                                      @Param("id") Long id,
+                                                      Limit limit);
 }
@@ -0,0 +1,26 @@
+package com.forum.repository;
+
+import com.forum.model.Role;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a post used by forum listings. Carries only what a
+ * summary card needs and never touches the comments collection.
+ */
+public interface PostSummaryView {
+    Long getId();
+    String getTitle();
+    String getExcerpt();
+    boolean getPinned();
+    int getScore();
+    LocalDateTime getTimestamp();
+    LocalDateTime getEditedAt();
+    Long getAuthorId();
+    Role getAuthorRole();
+    String getAuthorFirstName();
+    String getAuthorLastName();
+    String getAuthorNickname();
+    String getAuthorEmail();
+    long getCommentCount();
+    LocalDateTime getLastCommentAt();
+}
@@ -0,0 +1,9 @@
+package com.forum.repository;
+
+/**
+ * Number of direct replies of one comment.
+ */
+public interface ReplyCountView {
+    Long getParentId();
+    long getReplyCount();
+}
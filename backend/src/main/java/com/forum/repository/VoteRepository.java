@@ -2,9 +2,21 @@ package com.forum.repository;
 
 import com.forum.model.Vote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
     Optional<Vote> findByUserIdAndPostId(Long userId, Long postId);
     Optional<Vote> findByUserIdAndCommentId(Long userId, Long commentId);
+
+    // Conditional on the value read earlier, so a concurrent change by the same user is detected
+    @Modifying
+    @Query("UPDATE Vote v SET v.value = :newValue WHERE v.id = :id AND v.value = :oldValue")
+    int updateValueIfUnchanged(@Param("id") Long id, @Param("oldValue") int oldValue, @Param("newValue") int newValue);
+
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.id = :id AND v.value = :value")
+    int deleteIfUnchanged(@Param("id") Long id, @Param("value") int value);
 }
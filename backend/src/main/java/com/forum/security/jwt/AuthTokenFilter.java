@@ -1,6 +1,10 @@
 package com.forum.security.jwt;
 
+import com.forum.security.services.RevocationList;
+import com.forum.security.services.SecurityVersions;
+import com.forum.security.services.UserDetailsImpl;
 import com.forum.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +29,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private SecurityVersions securityVersions;
+
+    @Autowired
+    private RevocationList revocationList;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -32,10 +42,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            if (claims != null && revocationList.isRevoked(claims.getId())) {
+                claims = null;
+            }
+            UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -52,6 +64,18 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the token's claims when they are complete and its version is
+     * current. Tokens issued before the claims existed fall back to a user lookup.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipal(claims);
+        if (principal == null) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return securityVersions.isCurrent(principal.getId(), principal.getTokenVersion()) ? principal : null;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -4,60 +4,122 @@ import com.forum.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "tv";
+
     @Value("${forum.app.jwtSecret:SecretKeyMustBeLongEnoughToServeAsASecureKeyForHMACSHA256Algorithm}")
     private String jwtSecret;
 
-    @Value("${forum.app.jwtExpirationMs:86400000}")
+    // Short-lived; clients renew with a refresh token
+    @Value("${forum.app.jwtExpirationMs:900000}")
     private int jwtExpirationMs;
 
-    public String generateJwtToken(Authentication authentication) {
+    /**
+     * A signed access token with the id and expiry needed to revoke it.
+     */
+    public record IssuedToken(String token, String id, Date expiresAt) {
+    }
 
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+    // Both are immutable and thread-safe, so they are built once instead of per call
+    private Key key;
+    private JwtParser parser;
 
-        return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Issues a token whose claims are enough to rebuild the principal without a database lookup.
+     */
+    public String generateJwtToken(Authentication authentication) {
+        return issueAccessToken((UserDetailsImpl) authentication.getPrincipal()).token();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    /**
+     * Issues an access token for the principal, carrying a random id under which it can be revoked.
+     */
+    public IssuedToken issueAccessToken(UserDetailsImpl userPrincipal) {
+        String role = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null);
+
+        String id = UUID.randomUUID().toString();
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + jwtExpirationMs);
+        String token = Jwts.builder()
+                .setId(id)
+                .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
+                .setIssuedAt(now)
+                .setExpiration(expiresAt)
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        return new IssuedToken(token, id, expiresAt);
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies a token and returns its claims in a single parse.
+     * @return The claims, or {@code null} if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
+        return null;
+    }
+
+    /**
+     * Rebuilds the principal from a token's claims.
+     * @return The principal, or {@code null} for tokens issued without the compact claims.
+     */
+    public UserDetailsImpl getPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        return UserDetailsImpl.fromToken(userId.longValue(), claims.getSubject(), role, tokenVersion.intValue());
+    }
 
-        return false;
+    public String getUserNameFromJwtToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
-}
\ No newline at end of file
+}
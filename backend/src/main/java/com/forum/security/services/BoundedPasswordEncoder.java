@@ -0,0 +1,161 @@
+package com.forum.security.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt encoder that runs every hash and verification on its own small pool.
+ * <p>
+ * The pool has one thread per core and a bounded queue. When the queue is full, or a caller
+ * waits longer than {@code maxWaitMs}, the call fails at once with {@link RejectedExecutionException}.
+ * Controllers turn that into 503 with Retry-After. A login storm therefore holds at most
+ * threads + queue servlet threads, and the rest stay free for cheap reads.
+ * <p>
+ * Stored hashes below the configured cost report {@link #upgradeEncoding} as true when
+ * {@code migrateOnLogin} is set. Spring then rehashes them after a successful login.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    @Value("${forum.app.password.bcryptStrength:10}")
+    private int strength = 10;
+
+    @Value("${forum.app.password.migrateOnLogin:true}")
+    private boolean migrateOnLogin = true;
+
+    // 0 means one thread per available core
+    @Value("${forum.app.password.threads:0}")
+    private int threads = 0;
+
+    @Value("${forum.app.password.queueCapacity:32}")
+    private int queueCapacity = 32;
+
+    @Value("${forum.app.password.maxWaitMs:2000}")
+    private long maxWaitMs = 2000;
+
+    @Value("${forum.app.password.retryAfterSeconds:2}")
+    private int retryAfterSeconds = 2;
+
+    private BCryptPasswordEncoder delegate;
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        delegate = new BCryptPasswordEncoder(strength);
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hash");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return migrateOnLogin && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                waitNanos.add(started - submitted);
+                waitCount.increment();
+                try {
+                    return work.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - started);
+                    hashCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing is busy");
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A task still in the queue is removed so it stops holding a slot;
+            // one already hashing finishes and is discarded
+            cancel(future);
+            rejected.increment();
+            throw new RejectedExecutionException("Password hashing is busy");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(future);
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void cancel(Future<?> future) {
+        future.cancel(false);
+        executor.remove((Runnable) future);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("forum.password.queue.depth", this, BoundedPasswordEncoder::queueDepth).register(registry);
+        FunctionCounter.builder("forum.password.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionTimer.builder("forum.password.hash.latency", this,
+                e -> e.hashCount.sum(), e -> e.hashNanos.sum(), TimeUnit.NANOSECONDS).register(registry);
+        FunctionTimer.builder("forum.password.queue.wait", this,
+                e -> e.waitCount.sum(), e -> e.waitNanos.sum(), TimeUnit.NANOSECONDS).register(registry);
+    }
+}
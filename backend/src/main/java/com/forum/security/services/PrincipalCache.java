@@ -0,0 +1,79 @@
+package com.forum.security.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-based cache of loaded principals keyed by email.
+ * <p>
+ * An entry is only served while its token version matches the user's current version in
+ * {@link SecurityVersions}, so bumping a user's version drops their principal as well.
+ * Principals are shared between requests; this is safe because {@link UserDetailsImpl}
+ * is immutable and does not let Spring Security erase its password.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(UserDetailsImpl principal, long loadedAt) {
+    }
+
+    @Value("${forum.app.cache.principals.maxSize:10000}")
+    private int maxSize = 10000;
+
+    @Value("${forum.app.cache.principals.ttlMs:300000}")
+    private long ttlMs = 300000;
+
+    @Autowired
+    private SecurityVersions securityVersions;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached principal for an email, or {@code null} if it is missing, expired or outdated.
+     */
+    public UserDetailsImpl get(String email) {
+        if (email == null) {
+            return null;
+        }
+        Entry entry = cache.get(email);
+        if (entry == null) {
+            return null;
+        }
+        UserDetailsImpl principal = entry.principal();
+        if (System.currentTimeMillis() - entry.loadedAt() >= ttlMs
+                || securityVersions.current(principal.getId()) != principal.getTokenVersion()) {
+            cache.remove(email, entry);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String email, UserDetailsImpl principal) {
+        if (email == null || principal == null) {
+            return;
+        }
+        if (cache.size() >= maxSize) {
+            evictOne();
+        }
+        cache.put(email, new Entry(principal, System.currentTimeMillis()));
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.remove(email);
+        }
+    }
+
+    // Approximate eviction: drop whichever entry the map iterates first
+    private void evictOne() {
+        Iterator<String> it = cache.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
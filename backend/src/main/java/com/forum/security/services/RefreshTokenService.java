@@ -0,0 +1,194 @@
+package com.forum.security.services;
+
+import com.forum.model.RefreshToken;
+import com.forum.model.User;
+import com.forum.repository.RefreshTokenRepository;
+import com.forum.repository.UserRepository;
+import com.forum.security.jwt.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and rotates refresh tokens.
+ * <p>
+ * Clients get an opaque random value; only its SHA-256 is stored. Each refresh spends the
+ * presented token and returns a new access token plus a successor in the same family.
+ * A spent token presented again revokes the family. The family's latest access token is
+ * revoked too, so a stolen refresh token stops working for both the thief and the owner.
+ * <p>
+ * Two tabs of the same browser share one stored token and may refresh it at the same moment.
+ * For {@code refreshReuseGraceMs} after a rotation, presenting the token it spent again
+ * returns the same rotation instead of counting as reuse. Recent rotations are kept in memory
+ * on the instance that made them, so another instance still treats such a retry as reuse.
+ */
+@Service
+public class RefreshTokenService {
+
+    /**
+     * A fresh access token, the refresh token that replaces the presented one, and their owner.
+     */
+    public record Rotation(JwtUtils.IssuedToken access, String refreshToken, User user) {
+    }
+
+    private record RecentRotation(Rotation rotation, String familyId, long expiresAtMs) {
+    }
+
+    @Value("${forum.app.jwt.refreshExpirationMs:1209600000}")
+    private long refreshExpirationMs = 1209600000L;
+
+    @Value("${forum.app.jwt.refreshReuseGraceMs:10000}")
+    private long refreshReuseGraceMs = 10000L;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private RevocationList revocationList;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Hash of a spent token -> the rotation that spent it, while a retry still counts as concurrent
+    private final Map<String, RecentRotation> recentRotations = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a new token family for a user who just logged in with the given access token.
+     * @return The refresh token to hand to the client.
+     */
+    @Transactional
+    public String create(Long userId, JwtUtils.IssuedToken access) {
+        return issue(userId, UUID.randomUUID().toString(), access);
+    }
+
+    /**
+     * Spends a refresh token and issues its successor. A token spent less than
+     * {@code refreshReuseGraceMs} ago yields the rotation that spent it.
+     * @throws IllegalArgumentException if the token is unknown, expired, already spent or its user is gone.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = find(refreshToken);
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null || refreshTokenRepository.markSpent(current.getId(), now) == 0) {
+            RecentRotation recent = recentRotations.get(current.getTokenHash());
+            if (recent != null && recent.expiresAtMs() > System.currentTimeMillis()) {
+                return recent.rotation();
+            }
+            revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+        User user = userRepository.findById(current.getUserId())
+                .filter(User::isVerified)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        JwtUtils.IssuedToken access = jwtUtils.issueAccessToken(UserDetailsImpl.build(user));
+        Rotation rotation = new Rotation(access, issue(user.getId(), current.getFamilyId(), access), user);
+        remember(current, rotation);
+        return rotation;
+    }
+
+    /**
+     * Keeps a rotation for the grace window. It is visible before the commit, so a concurrent
+     * retry blocked on the same row finds it, and forgotten again if the transaction rolls back.
+     */
+    private void remember(RefreshToken spent, Rotation rotation) {
+        if (refreshReuseGraceMs <= 0) return;
+        String key = spent.getTokenHash();
+        recentRotations.put(key, new RecentRotation(rotation, spent.getFamilyId(),
+                System.currentTimeMillis() + refreshReuseGraceMs));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        recentRotations.remove(key);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Logs out the session the refresh token belongs to.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        revokeFamily(find(refreshToken).getFamilyId());
+    }
+
+    @Scheduled(fixedDelayString = "${forum.app.jwt.revocation.purgeMs:600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        long now = System.currentTimeMillis();
+        recentRotations.values().removeIf(recent -> recent.expiresAtMs() <= now);
+    }
+
+    private RefreshToken find(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+        return refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+    }
+
+    private void revokeFamily(String familyId) {
+        // A revoked family must not be revived through the grace window
+        recentRotations.values().removeIf(recent -> recent.familyId().equals(familyId));
+        LocalDateTime now = LocalDateTime.now();
+        for (RefreshToken token : refreshTokenRepository.findByFamilyIdAndRevokedAtIsNull(familyId)) {
+            token.setRevokedAt(now);
+            refreshTokenRepository.save(token);
+            revocationList.revoke(token.getAccessTokenId(), token.getAccessExpiresAt());
+        }
+    }
+
+    private String issue(Long userId, String familyId, JwtUtils.IssuedToken access) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(null, userId, hash(value), familyId, access.id(),
+                toLocal(access.expiresAt()), LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)), null));
+        return value;
+    }
+
+    static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,157 @@
+package com.forum.security.services;
+
+import com.forum.model.RevokedToken;
+import com.forum.repository.RevokedTokenRepository;
+import com.forum.util.BloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory view of revoked access tokens, checked on every authenticated request.
+ * <p>
+ * A Bloom filter answers almost every check with a definite "not revoked". Only filter hits
+ * go to the exact set, so false positives never reject a token. Revocations made on this
+ * instance apply at once. Those made elsewhere are picked up every {@code reloadMs}, by
+ * reading rows past the highest id already loaded, less {@code reloadOverlap} ids. Ids are
+ * allocated before commit, so a row can become visible after rows with higher ids; the
+ * overlap re-reads it on a later reload, and adding an entry twice is harmless. Expired
+ * entries are dropped on purge, and the filter is rebuilt from what remains.
+ */
+@Component
+public class RevocationList implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(RevocationList.class);
+
+    @Value("${forum.app.jwt.revocation.bloomBits:1048576}")
+    private int bloomBits = 1 << 20;
+
+    @Value("${forum.app.jwt.revocation.hashes:5}")
+    private int hashes = 5;
+
+    @Value("${forum.app.jwt.revocation.batchSize:1000}")
+    private int batchSize = 1000;
+
+    @Value("${forum.app.jwt.revocation.reloadOverlap:1000}")
+    private long reloadOverlap = 1000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    // token id -> when the token would have expired anyway
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private volatile long lastId;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        filter = new BloomFilter(bloomBits, hashes);
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            logger.error("Could not load revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code true} if the token with this JWT id has been revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        checks.increment();
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        filterHits.increment();
+        if (revoked.containsKey(tokenId)) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Revokes an access token until it expires, here at once and on other instances at their next reload.
+     */
+    @Transactional
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(null, tokenId, expiresAt));
+        add(tokenId, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${forum.app.jwt.revocation.reloadMs:5000}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        long after = Math.max(0, lastId - reloadOverlap);
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize));
+            for (RevokedToken token : batch) {
+                if (token.getExpiresAt().isAfter(now)) {
+                    add(token.getTokenId(), token.getExpiresAt());
+                }
+                after = token.getId();
+            }
+        } while (batch.size() == batchSize);
+        lastId = Math.max(lastId, after);
+    }
+
+    @Scheduled(fixedDelayString = "${forum.app.jwt.revocation.purgeMs:600000}")
+    @Transactional
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (lock) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            BloomFilter rebuilt = new BloomFilter(bloomBits, hashes);
+            revoked.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        }
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Under the lock so a purge cannot swap in a rebuilt filter that misses this entry
+    private void add(String tokenId, LocalDateTime expiresAt) {
+        synchronized (lock) {
+            revoked.put(tokenId, expiresAt);
+            filter.add(tokenId);
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("forum.jwt.revoked.entries", this, RevocationList::size).register(registry);
+        FunctionCounter.builder("forum.jwt.revocation.checks", checks, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.jwt.revocation.filter.hits", filterHits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.jwt.revocation.rejected", rejected, LongAdder::sum).register(registry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.forum.security.services;
+
+import com.forum.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of each user's current token version, so a token's version claim can be
+ * checked without a query per request.
+ * <p>
+ * Entries expire after {@code versionTtlMs}. Version bumps made by this instance evict at
+ * once. Bumps made by other instances take effect within the TTL.
+ */
+@Component
+public class SecurityVersions {
+
+    private static final int MISSING = -1;
+
+    private record Entry(int version, long loadedAt) {
+    }
+
+    @Value("${forum.app.jwt.versionTtlMs:60000}")
+    private long versionTtlMs = 60000;
+
+    @Value("${forum.app.jwt.versionCacheMaxSize:10000}")
+    private int maxSize = 10000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a load that raced with a version bump is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Whether a token with the given version is still valid for the user.
+     * Always false for users that no longer exist.
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        int current = current(userId);
+        return current != MISSING && current == tokenVersion;
+    }
+
+    /**
+     * The user's current token version, or -1 if the user does not exist.
+     */
+    public int current(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry != null && now - entry.loadedAt() < versionTtlMs) {
+            return entry.version();
+        }
+        long observedGeneration = generation.get();
+        int version = userRepository.findTokenVersionById(userId).orElse(MISSING);
+        if (generation.get() == observedGeneration) {
+            if (cache.size() >= maxSize) {
+                evictOne();
+            }
+            cache.put(userId, new Entry(version, now));
+        }
+        return version;
+    }
+
+    /**
+     * Drops a user's cached version now and again once the surrounding transaction commits.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    // Approximate eviction: drop whichever entry the map iterates first
+    private void evictOne() {
+        Iterator<Long> it = cache.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -19,14 +19,21 @@ public class UserDetailsImpl implements UserDetails {
     @JsonIgnore
     private String password;
     private boolean verified;
+    private int tokenVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserDetailsImpl(Long id, String email, String password, boolean verified,
                            Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, verified, 0, authorities);
+    }
+
+    public UserDetailsImpl(Long id, String email, String password, boolean verified, int tokenVersion,
+                           Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.verified = verified;
+        this.tokenVersion = tokenVersion;
         this.authorities = authorities;
     }
 
@@ -39,9 +46,19 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 user.isVerified(),
+                user.getTokenVersion(),
                 authorities);
     }
-    
+
+    /**
+     * Builds a principal from verified token claims alone. It has no password, and it is enabled
+     * because tokens are only issued to verified users.
+     */
+    public static UserDetailsImpl fromToken(Long id, String email, String role, int tokenVersion) {
+        return new UserDetailsImpl(id, email, null, true, tokenVersion,
+                Collections.singletonList(new SimpleGrantedAuthority(role)));
+    }
+
     
 
     @Override
@@ -53,6 +70,10 @@ public class UserDetailsImpl implements UserDetails {
         return id;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     public String getEmail() {
         return email;
     }
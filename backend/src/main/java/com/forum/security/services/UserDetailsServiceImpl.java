@@ -4,22 +4,47 @@ import com.forum.model.User;
 import com.forum.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    PrincipalCache principalCache;
+
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetailsImpl cached = principalCache.get(email);
+        if (cached != null) {
+            return cached;
+        }
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
 
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        principalCache.put(email, principal);
+        return principal;
+    }
+
+    /**
+     * Stores a password rehashed at the current BCrypt cost. The password itself is unchanged,
+     * so issued tokens stay valid; only the cached principal with the old hash is dropped.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        principalCache.evict(user.getEmail());
         return UserDetailsImpl.build(user);
     }
 }
\ No newline at end of file
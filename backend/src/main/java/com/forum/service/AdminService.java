@@ -5,6 +5,7 @@ import com.forum.model.university.UniversityCourse;
 import com.forum.repository.*;
 import com.forum.repository.university.UniversityCourseRepository;
 import com.forum.repository.university.UniversityStudentRepository;
+import com.forum.security.services.SecurityVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -37,6 +38,18 @@ public class AdminService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private ForumService forumService;
+    @Autowired
+    private AuthorDtoCache authorDtoCache;
+    @Autowired
+    private ForumAccessCache forumAccessCache;
+    @Autowired
+    private PostResponseCache postResponseCache;
+    @Autowired
+    private ContentVersions contentVersions;
+    @Autowired
+    private SecurityVersions securityVersions;
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
 
     /**
      * Syncs professor data from university records.
@@ -69,6 +82,7 @@ public class AdminService {
         
         user.setGroupName(newGroupName);
         userRepository.save(user);
+        forumAccessCache.evict(user.getId());
         
         // Update subforum access
         if (user.getCourses() != null) {
@@ -141,15 +155,20 @@ public class AdminService {
         }
         
         // Remove from allowed users in forums
-        List<Forum> allForums = forumRepository.findAll();
-        for (Forum forum : allForums) {
-            if (forum.getAllowedUsers() != null && forum.getAllowedUsers().contains(user)) {
-                forum.getAllowedUsers().remove(user);
-                forumRepository.save(forum);
-            }
+        for (Forum forum : forumRepository.findByAllowedUsersId(userId)) {
+            forum.getAllowedUsers().remove(user);
+            forumRepository.save(forum);
         }
         
+        // Undelivered notifications would fail on the missing recipient
+        notificationOutboxRepository.deleteByRecipientId(userId);
+
         userRepository.delete(user);
+        securityVersions.evict(userId);
+        authorDtoCache.evict(userId);
+        forumAccessCache.evict(userId);
+        postResponseCache.invalidateAll();
+        contentVersions.bumpAll();
     }
 
     /**
@@ -175,6 +194,7 @@ public class AdminService {
                 if (student.getCourses() != null) {
                     student.getCourses().removeIf(c -> c.getId().equals(course.getId()));
                 }
+                forumAccessCache.evict(student.getId());
             }
         }
     }
@@ -197,6 +217,7 @@ public class AdminService {
         
         forum.getAllowedUsers().add(student);
         forumRepository.save(forum);
+        forumAccessCache.evict(student.getId());
     }
     
     /**
@@ -236,6 +257,7 @@ public class AdminService {
                 student.setCourses(new java.util.ArrayList<>());
             }
             student.getCourses().add(course);
+            forumAccessCache.evict(student.getId());
             
             // Ensure group subforum exists
             if (student.getGroupName() != null) {
@@ -266,8 +288,16 @@ public class AdminService {
         user.setStudyYear(updatedData.getStudyYear());
         user.setSemester(updatedData.getSemester());
         user.setVerified(updatedData.isVerified());
+        // Tokens carry email, role and id; revoke the ones issued before this change
+        user.setTokenVersion(user.getTokenVersion() + 1);
         
         userRepository.save(user);
+        securityVersions.evict(userId);
+        // Name, nickname, email and role all feed the author display
+        authorDtoCache.evict(userId);
+        forumAccessCache.evict(userId);
+        postResponseCache.invalidateAll();
+        contentVersions.bumpAll();
         
         // If group changed, ensure subforums exist
         if (groupChanged && user.getRole() == Role.STUDENT && user.getCourses() != null) {
@@ -309,6 +339,7 @@ public class AdminService {
                 uniCourseRepo.save(course);
             }
         }
+        forumAccessCache.evictAll();
     }
     
     /**
@@ -326,6 +357,7 @@ public class AdminService {
      */
     public void clearForums() {
         forumRepository.deleteAll();
+        forumAccessCache.evictAll();
     }
 
     /**
@@ -373,5 +405,6 @@ public class AdminService {
                 }
             }
         }
+        forumAccessCache.evictAll();
     }
 }
@@ -0,0 +1,107 @@
+package com.forum.service;
+
+import com.forum.dto.AuthorDto;
+import com.forum.model.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of author DTOs keyed by user id.
+ * Cached instances are shared between responses and therefore read-only.
+ */
+@Component
+public class AuthorDtoCache {
+
+    @Value("${forum.app.cache.authors.maxSize:10000}")
+    private int maxSize = 10000;
+
+    private final ConcurrentHashMap<Long, AuthorDto> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached author for {@code userId}, building it with {@code loader} on a miss.
+     */
+    public AuthorDto get(Long userId, Supplier<AuthorDto> loader) {
+        if (userId == null) {
+            return loader.get();
+        }
+        AuthorDto cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        if (cache.size() >= maxSize) {
+            evictOne();
+        }
+        return cache.computeIfAbsent(userId, id -> new FrozenAuthorDto(loader.get()));
+    }
+
+    /**
+     * Drops the entry for a user now and again once the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    // Approximate eviction: drop whichever entry the map iterates first
+    private void evictOne() {
+        Iterator<Long> it = cache.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Read-only copy handed out by the cache.
+     */
+    private static final class FrozenAuthorDto extends AuthorDto {
+        FrozenAuthorDto(AuthorDto source) {
+            super(source.getId(), source.getDisplayName(), source.getRole(), source.getEmail());
+        }
+
+        @Override
+        public void setId(Long id) {
+            throw new UnsupportedOperationException("Cached AuthorDto is read-only");
+        }
+
+        @Override
+        public void setDisplayName(String displayName) {
+            throw new UnsupportedOperationException("Cached AuthorDto is read-only");
+        }
+
+        @Override
+        public void setRole(Role role) {
+            throw new UnsupportedOperationException("Cached AuthorDto is read-only");
+        }
+
+        @Override
+        public void setEmail(String email) {
+            throw new UnsupportedOperationException("Cached AuthorDto is read-only");
+        }
+    }
+}
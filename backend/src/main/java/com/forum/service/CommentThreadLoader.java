@@ -0,0 +1,218 @@
+package com.forum.service;
+
+import com.forum.dto.AuthorDto;
+import com.forum.dto.CommentResponse;
+import com.forum.dto.CursorPage;
+import com.forum.repository.CommentRepository;
+import com.forum.repository.CommentRowView;
+import com.forum.repository.ReplyCountView;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads one slice of a post's comment thread with keyset queries, so the cost of a slice
+ * follows its size rather than the size of the whole thread.
+ * <p>
+ * The slice's siblings are one page of at most {@code replyLimit} rows. Each level below costs
+ * one grouped reply count and one query for all parents with at most a page of replies. A parent
+ * with more gets its own limited query, which also fills a whole page of the output.
+ * <p>
+ * {@link #firstSlices} reads the first slice of several posts at once, sharing each level's
+ * queries across all of them.
+ */
+public final class CommentThreadLoader {
+
+    private final CommentRepository commentRepository;
+    private final Long postId;
+    private final Function<CommentRowView, AuthorDto> authorMapper;
+
+    private final Map<Long, List<CommentRowView>> children = new HashMap<>();
+    private final Map<Long, Long> replyCounts = new HashMap<>();
+
+    private CommentThreadLoader(CommentRepository commentRepository, Long postId,
+                                Function<CommentRowView, AuthorDto> authorMapper) {
+        this.commentRepository = commentRepository;
+        this.postId = postId;
+        this.authorMapper = authorMapper;
+    }
+
+    public static CommentThreadLoader of(CommentRepository commentRepository, Long postId,
+                                         Function<CommentRowView, AuthorDto> authorMapper) {
+        return new CommentThreadLoader(commentRepository, postId, authorMapper);
+    }
+
+    /**
+     * Returns the first slice of each post, keyed by post id, with every level read for all
+     * posts together. Posts without comments map to an empty slice.
+     */
+    public static Map<Long, CursorPage<CommentResponse>> firstSlices(CommentRepository commentRepository,
+                                                                    List<Long> postIds,
+                                                                    Function<CommentRowView, AuthorDto> authorMapper,
+                                                                    int maxDepth, int replyLimit) {
+        Map<Long, List<CommentRowView>> siblingsByPost = new LinkedHashMap<>();
+        for (Long postId : postIds) {
+            siblingsByPost.put(postId, new ArrayList<>());
+        }
+        if (!postIds.isEmpty()) {
+            // One extra row per post to know whether another slice exists
+            List<Long> ids = commentRepository.findTopLevelFirstPageIds(postIds, replyLimit + 1);
+            if (!ids.isEmpty()) {
+                for (CommentRowView row : commentRepository.findTopLevelByIdIn(ids)) {
+                    siblingsByPost.computeIfAbsent(row.getPostId(), k -> new ArrayList<>()).add(row);
+                }
+            }
+        }
+
+        CommentThreadLoader loader = new CommentThreadLoader(commentRepository, null, authorMapper);
+        Map<Long, Boolean> hasMoreByPost = new HashMap<>();
+        List<CommentRowView> firstLevel = new ArrayList<>();
+        for (Map.Entry<Long, List<CommentRowView>> entry : siblingsByPost.entrySet()) {
+            List<CommentRowView> siblings = entry.getValue();
+            boolean hasMore = siblings.size() > replyLimit;
+            if (hasMore) {
+                siblings = siblings.subList(0, replyLimit);
+                entry.setValue(siblings);
+            }
+            hasMoreByPost.put(entry.getKey(), hasMore);
+            firstLevel.addAll(siblings);
+        }
+        loader.loadLevels(firstLevel, maxDepth, replyLimit);
+
+        Map<Long, CursorPage<CommentResponse>> slices = new HashMap<>();
+        for (Map.Entry<Long, List<CommentRowView>> entry : siblingsByPost.entrySet()) {
+            slices.put(entry.getKey(), loader.page(entry.getKey(), null, entry.getValue(),
+                    hasMoreByPost.get(entry.getKey()), maxDepth, replyLimit));
+        }
+        return slices;
+    }
+
+    /**
+     * Returns one slice of siblings with their subtrees cut at {@code maxDepth} levels
+     * (the returned siblings being level one) and at most {@code replyLimit} children per level.
+     * @param cursor Continuation token from a truncated node or a previous slice; {@code null}
+     *               starts at the first top-level comment.
+     */
+    public CursorPage<CommentResponse> slice(String cursor, int maxDepth, int replyLimit) {
+        // Fetch one extra row to know whether another slice exists
+        Limit limit = Limit.of(replyLimit + 1);
+        Long parentId = null;
+        List<CommentRowView> siblings;
+
+        if (cursor == null || cursor.isBlank()) {
+            siblings = commentRepository.findTopLevelFirstPage(postId, limit);
+        } else {
+            ThreadCursor position = ThreadCursor.decode(cursor);
+            if (!postId.equals(position.postId())) {
+                throw new IllegalArgumentException("Cursor does not belong to this post");
+            }
+            parentId = position.parentId();
+            if (parentId == null) {
+                siblings = position.afterId() == null
+                        ? commentRepository.findTopLevelFirstPage(postId, limit)
+                        : commentRepository.findTopLevelAfter(postId, position.pinned(), position.score(),
+                                position.timestamp(), position.afterId(), limit);
+            } else {
+                siblings = position.afterId() == null
+                        ? commentRepository.findRepliesFirstPage(postId, parentId, limit)
+                        : commentRepository.findRepliesAfter(postId, parentId, position.timestamp(),
+                                position.afterId(), limit);
+            }
+        }
+
+        boolean hasMore = siblings.size() > replyLimit;
+        if (hasMore) {
+            siblings = siblings.subList(0, replyLimit);
+        }
+        loadLevels(siblings, maxDepth, replyLimit);
+        return page(postId, parentId, siblings, hasMore, maxDepth, replyLimit);
+    }
+
+    private CursorPage<CommentResponse> page(Long postId, Long parentId, List<CommentRowView> siblings,
+                                             boolean hasMore, int maxDepth, int replyLimit) {
+        List<CommentResponse> items = new ArrayList<>(siblings.size());
+        for (CommentRowView row : siblings) {
+            items.add(toResponse(row, 1, maxDepth, replyLimit));
+        }
+        String nextCursor = hasMore ? ThreadCursor.after(postId, parentId, siblings.get(siblings.size() - 1)).encode() : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    // Walks down one level at a time, reading reply counts for every node and replies only above maxDepth
+    private void loadLevels(List<CommentRowView> level, int maxDepth, int replyLimit) {
+        int depth = 1;
+        while (!level.isEmpty()) {
+            List<Long> ids = level.stream().map(CommentRowView::getId).toList();
+            for (ReplyCountView count : commentRepository.countRepliesByParentIdIn(ids)) {
+                replyCounts.put(count.getParentId(), count.getReplyCount());
+            }
+            if (depth >= maxDepth) {
+                return;
+            }
+
+            List<CommentRowView> next = new ArrayList<>();
+            List<Long> smallParents = new ArrayList<>();
+            for (CommentRowView parent : level) {
+                Long id = parent.getId();
+                long count = replyCounts.getOrDefault(id, 0L);
+                if (count == 0) {
+                    continue;
+                }
+                if (count <= replyLimit) {
+                    smallParents.add(id);
+                } else {
+                    List<CommentRowView> page = commentRepository.findRepliesFirstPage(parent.getPostId(), id, Limit.of(replyLimit));
+                    children.put(id, page);
+                    next.addAll(page);
+                }
+            }
+            if (!smallParents.isEmpty()) {
+                for (CommentRowView row : commentRepository.findAllByParentIdIn(smallParents)) {
+                    children.computeIfAbsent(row.getParentId(), k -> new ArrayList<>()).add(row);
+                    next.add(row);
+                }
+            }
+            level = next;
+            depth++;
+        }
+    }
+
+    private CommentResponse toResponse(CommentRowView row, int depth, int maxDepth, int replyLimit) {
+        long replyCount = replyCounts.getOrDefault(row.getId(), 0L);
+        List<CommentRowView> replyRows = depth >= maxDepth ? List.of() : children.getOrDefault(row.getId(), List.of());
+        // Replies added after the count was read may overshoot the page
+        if (replyRows.size() > replyLimit) {
+            replyRows = replyRows.subList(0, replyLimit);
+        }
+
+        List<CommentResponse> replies = new ArrayList<>(replyRows.size());
+        for (CommentRowView reply : replyRows) {
+            replies.add(toResponse(reply, depth + 1, maxDepth, replyLimit));
+        }
+        String repliesCursor = null;
+        if (replyCount > replyRows.size()) {
+            repliesCursor = replyRows.isEmpty()
+                    ? ThreadCursor.start(row.getPostId(), row.getId()).encode()
+                    : ThreadCursor.after(row.getPostId(), row.getId(), replyRows.get(replyRows.size() - 1)).encode();
+        }
+
+        return new CommentResponse(
+                row.getId(),
+                row.getContent(),
+                authorMapper.apply(row),
+                row.getPostId(),
+                row.getTimestamp(),
+                row.getEditedAt(),
+                row.getScore(),
+                row.getParentId(),
+                replies,
+                (int) replyCount,
+                repliesCursor
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.forum.service;
+
+import com.forum.event.PostChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counters for posts and forum post lists, used to build strong ETags.
+ * <p>
+ * Counters are bumped after commit by {@link PostChangedEvent}s, so a tag never runs ahead of
+ * the data it describes. Ids share a fixed number of slots: a collision only changes a tag
+ * needlessly, never keeps it the same. Tags include a per-process epoch, so counters that
+ * restart from zero cannot reproduce a tag issued before the restart.
+ */
+@Component
+public class ContentVersions {
+
+    private static final int SLOTS = 4096;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong global = new AtomicLong();
+    private final AtomicLongArray posts = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray forums = new AtomicLongArray(SLOTS);
+
+    /**
+     * ETag of a post rendered with the given comment thread limits.
+     */
+    public String postETag(Long postId, int maxDepth, int replyLimit) {
+        return "\"p" + postId + "." + maxDepth + "." + replyLimit + "-" + epoch + "."
+                + global.get() + "." + posts.get(slot(postId)) + "\"";
+    }
+
+    /**
+     * ETag of a forum's full post list.
+     */
+    public String forumETag(Long forumId) {
+        return "\"f" + forumId + "-" + epoch + "." + global.get() + "." + forums.get(slot(forumId)) + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.postId() != null) {
+            posts.incrementAndGet(slot(event.postId()));
+        }
+        if (event.forumId() != null) {
+            forums.incrementAndGet(slot(event.forumId()));
+        }
+    }
+
+    /**
+     * Changes every tag, e.g. when an author's display data changes.
+     */
+    public void bumpAll() {
+        global.incrementAndGet();
+    }
+
+    private static int slot(Long id) {
+        return (int) (id ^ (id >>> 32)) & (SLOTS - 1);
+    }
+}
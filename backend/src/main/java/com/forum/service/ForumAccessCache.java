@@ -0,0 +1,101 @@
+package com.forum.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the forum ids each student may see, in display order.
+ * Entries are dropped whenever enrollment, group or explicit forum access changes.
+ */
+@Component
+public class ForumAccessCache {
+
+    @Value("${forum.app.cache.forumAccess.maxSize:10000}")
+    private int maxSize = 10000;
+
+    private final ConcurrentHashMap<Long, List<Long>> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction so a lookup that raced with a change does not store stale ids
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the cached forum ids for a user, or {@code null} on a miss.
+     */
+    public List<Long> get(Long userId) {
+        return userId == null ? null : cache.get(userId);
+    }
+
+    /**
+     * Current generation, to be read before resolving access and passed to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the forum ids for a user unless an eviction happened since {@code observedGeneration}.
+     */
+    public void put(Long userId, List<Long> forumIds, long observedGeneration) {
+        if (userId == null || generation.get() != observedGeneration) {
+            return;
+        }
+        if (cache.size() >= maxSize) {
+            evictOne();
+        }
+        cache.put(userId, List.copyOf(forumIds));
+    }
+
+    /**
+     * Drops a user's entry now and again once the surrounding transaction commits.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.remove(userId);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.remove(userId);
+        });
+    }
+
+    /**
+     * Drops every entry, e.g. when forums are created or removed.
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.clear();
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            cache.clear();
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    // Approximate eviction: drop whichever entry the map iterates first
+    private void evictOne() {
+        Iterator<Long> it = cache.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
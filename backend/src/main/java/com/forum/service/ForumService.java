@@ -2,15 +2,29 @@ package com.forum.service;
 
 import com.forum.dto.AuthorDto;
 import com.forum.dto.CommentResponse;
+import com.forum.dto.CursorPage;
+import com.forum.dto.ForumDelta;
 import com.forum.dto.PostResponse;
+import com.forum.dto.PostSummary;
+import com.forum.dto.VoteResponse;
+import com.forum.event.PostChangedEvent;
 import com.forum.model.*;
 import com.forum.model.university.UniversityCourse;
 import com.forum.repository.*;
+import com.forum.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +44,42 @@ public class ForumService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private AuthorDtoCache authorDtoCache;
+
+    @Autowired
+    private ForumAccessCache forumAccessCache;
+
+    @Autowired
+    private VoteBuffer voteBuffer;
+
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${forum.app.posts.pageSize:20}")
+    private int postPageSize = 20;
+
+    @Value("${forum.app.posts.maxPageSize:100}")
+    private int maxPostPageSize = 100;
+
+    @Value("${forum.app.comments.maxDepth:6}")
+    private int commentMaxDepth = 6;
+
+    @Value("${forum.app.comments.maxDepthLimit:20}")
+    private int commentMaxDepthLimit = 20;
+
+    @Value("${forum.app.comments.replyLimit:50}")
+    private int commentReplyLimit = 50;
+
+    @Value("${forum.app.comments.replyLimitMax:200}")
+    private int commentReplyLimitMax = 200;
+
     /**
      * Creates a group subforum if it doesn't exist for a given course and group.
      */
@@ -42,6 +92,8 @@ public class ForumService {
             subForum.setGroupName(groupName);
             subForum.setType(Forum.ForumType.GROUP_SUBFORUM);
             forumRepository.save(subForum);
+            // Every student of this course and group gains a forum
+            forumAccessCache.evictAll();
         }
     }
 
@@ -60,6 +112,40 @@ public class ForumService {
             return forumRepository.findByProfessorId(user.getId());
         }
         
+        // Students: serve from the cached access set when possible
+        List<Long> cachedIds = forumAccessCache.get(user.getId());
+        if (cachedIds != null) {
+            Map<Long, Forum> byId = forumRepository.findAllById(cachedIds).stream()
+                    .collect(Collectors.toMap(Forum::getId, Function.identity()));
+            return cachedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        }
+
+        long generation = forumAccessCache.generation();
+        List<Forum> forums = resolveStudentForums(user);
+        forumAccessCache.put(user.getId(), forums.stream().map(Forum::getId).toList(), generation);
+        return forums;
+    }
+
+    /**
+     * Ids of the forums a student belongs to, whose announcements reach their inbox.
+     * Empty for other roles.
+     */
+    @Transactional
+    public List<Long> getStudentForumIds(User user) {
+        if (user.getRole() != Role.STUDENT) {
+            return List.of();
+        }
+        List<Long> cachedIds = forumAccessCache.get(user.getId());
+        if (cachedIds != null) {
+            return cachedIds;
+        }
+        long generation = forumAccessCache.generation();
+        List<Long> forumIds = resolveStudentForums(user).stream().map(Forum::getId).toList();
+        forumAccessCache.put(user.getId(), forumIds, generation);
+        return forumIds;
+    }
+
+    private List<Forum> resolveStudentForums(User user) {
         // Students see forums for their courses
         List<UniversityCourse> relevantCourses = new ArrayList<>();
         if (user.getCourses() != null) {
@@ -82,17 +168,16 @@ public class ForumService {
         mainForums.addAll(groupForums);
         
         // Add manually allowed forums
-        List<Forum> allowedForums = forumRepository.findAll().stream()
-                .filter(f -> f.getAllowedUsers() != null && f.getAllowedUsers().contains(user))
-                .toList();
-        mainForums.addAll(allowedForums);
+        mainForums.addAll(forumRepository.findByAllowedUsersId(user.getId()));
 
         return mainForums.stream().distinct().toList();
     }
 
     /**
-     * Creates and saves a new post.
+     * Creates and saves a new post. A professor's post and its announcement are stored in one
+     * transaction, and the announcement is pushed only after it commits.
      */
+    @Transactional
     public PostResponse createPost(Long forumId, String title, String content, String userEmail) {
         if (forumId == null) throw new IllegalArgumentException("Forum ID required");
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new RuntimeException("User not found"));
@@ -109,30 +194,160 @@ public class ForumService {
         }
         
         Post savedPost = postRepository.save(post);
-        return mapToPostResponse(savedPost);
+        PostResponse response = mapToPostResponse(savedPost);
+        ForumDelta delta = delta(PostChangedEvent.Change.CREATED, forumId, savedPost.getId());
+        delta.setPost(response);
+        publishChange(savedPost, PostChangedEvent.Change.CREATED, delta);
+
+        // Announce to the whole forum with one row instead of one notification per student
+        if (user.getRole() == Role.PROFESSOR) {
+            notificationService.announce(forumId, "New announcement: " + savedPost.getTitle(), savedPost.getId());
+        }
+        return response;
     }
     
     /**
-     * Retrieves posts for a forum, sorted by pin status and score.
+     * Retrieves all posts for a forum, sorted by pin status and score.
+     * Kept for compatibility with older clients; prefer {@link #getPostsPage}.
      */
     public List<PostResponse> getPosts(Long forumId) {
         if (forumId == null) throw new IllegalArgumentException("Forum ID required");
         List<Post> posts = postRepository.findByForumIdOrderByIsPinnedDescScoreDescTimestampDesc(forumId);
-        return posts.stream().map(this::mapToPostResponse).collect(Collectors.toList());
+        return mapToPostResponses(posts);
+    }
+
+    /**
+     * Strong ETag of {@link #getPosts}; read it before building the list.
+     */
+    public String getPostsETag(Long forumId) {
+        if (forumId == null) throw new IllegalArgumentException("Forum ID required");
+        return contentVersions.forumETag(forumId);
+    }
+
+    /**
+     * Retrieves one page of posts for a forum using keyset pagination on
+     * (pinned, score, timestamp, id). Pass the previous page's cursor to continue.
+     */
+    public CursorPage<PostResponse> getPostsPage(Long forumId, String cursor, Integer size) {
+        if (forumId == null) throw new IllegalArgumentException("Forum ID required");
+        int pageSize = resolvePostPageSize(size);
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Post> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFirstPageByForumId(forumId, limit);
+        } else {
+            PostKey key = PostKey.decode(cursor);
+            posts = postRepository.findPageByForumIdAfter(forumId, key.pinned(), key.score(), key.timestamp(), key.id(), limit);
+        }
+
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = new PostKey(last.isPinned(), last.getScore(), last.getTimestamp(), last.getId()).encode();
+        }
+
+        return new CursorPage<>(mapToPostResponses(posts), nextCursor, hasMore);
+    }
+
+    /**
+     * Retrieves one page of lightweight post summaries for a forum listing.
+     * Built from a single projection query; comment trees are never loaded.
+     */
+    public CursorPage<PostSummary> getPostSummaries(Long forumId, String cursor, Integer size) {
+        if (forumId == null) throw new IllegalArgumentException("Forum ID required");
+        int pageSize = resolvePostPageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PostSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = postRepository.findSummariesFirstPageByForumId(forumId, limit);
+        } else {
+            PostKey key = PostKey.decode(cursor);
+            rows = postRepository.findSummariesByForumIdAfter(forumId, key.pinned(), key.score(), key.timestamp(), key.id(), limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            PostSummaryView last = rows.get(rows.size() - 1);
+            nextCursor = new PostKey(last.getPinned(), last.getScore(), last.getTimestamp(), last.getId()).encode();
+        }
+
+        List<PostSummary> items = rows.stream().map(this::mapToPostSummary).collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private int resolvePostPageSize(Integer size) {
+        if (size == null || size <= 0) return postPageSize;
+        return Math.min(size, maxPostPageSize);
     }
     
     /**
-     * Retrieves a single post.
+     * Strong ETag of {@link #getPost(Long, Integer, Integer)}; read it before building the post.
+     */
+    public String getPostETag(Long postId, Integer maxDepth, Integer replyLimit) {
+        if (postId == null) throw new IllegalArgumentException("Post ID required");
+        return contentVersions.postETag(postId, resolveMaxDepth(maxDepth), resolveReplyLimit(replyLimit));
+    }
+
+    /**
+     * Retrieves a single post with its comment thread cut at the configured default depth and reply limit.
      */
     public PostResponse getPost(Long postId) {
+        return getPost(postId, null, null);
+    }
+
+    /**
+     * Retrieves a single post with its comment thread cut at {@code maxDepth} levels and
+     * {@code replyLimit} comments per level. Truncated nodes carry a cursor for {@link #getCommentThread}.
+     */
+    public PostResponse getPost(Long postId, Integer maxDepth, Integer replyLimit) {
         if (postId == null) throw new IllegalArgumentException("Post ID required");
-        Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
-        return mapToPostResponse(post);
+        int depth = resolveMaxDepth(maxDepth);
+        int limit = resolveReplyLimit(replyLimit);
+        return postResponseCache.get(postId, depth, limit, () -> {
+            Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
+            return mapToPostResponse(post, depth, limit);
+        });
+    }
+
+    /**
+     * Retrieves the next slice of a comment thread, starting from a cursor returned by
+     * {@link #getPost} or a previous slice. Without a cursor, starts at the first top-level comment.
+     * Only the rows of the slice are read, however large the thread is.
+     */
+    public CursorPage<CommentResponse> getCommentThread(Long postId, String cursor, Integer maxDepth, Integer replyLimit) {
+        if (postId == null) throw new IllegalArgumentException("Post ID required");
+        CursorPage<CommentResponse> slice = CommentThreadLoader.of(commentRepository, postId, this::mapToAuthorDto)
+                .slice(cursor, resolveMaxDepth(maxDepth), resolveReplyLimit(replyLimit));
+        addPendingScores(slice.getItems());
+        return slice;
+    }
+
+    private int resolveMaxDepth(Integer maxDepth) {
+        if (maxDepth == null || maxDepth <= 0) return commentMaxDepth;
+        return Math.min(maxDepth, commentMaxDepthLimit);
+    }
+
+    private int resolveReplyLimit(Integer replyLimit) {
+        if (replyLimit == null || replyLimit <= 0) return commentReplyLimit;
+        return Math.min(replyLimit, commentReplyLimitMax);
     }
     
     /**
      * Adds a comment to a post, handling notifications.
+     * Notifications are only queued once the comment has committed.
      */
+    @Transactional
     public CommentResponse addComment(Long postId, String content, String userEmail, Long parentId) {
         if (postId == null) throw new IllegalArgumentException("Post ID required");
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new RuntimeException("User not found"));
@@ -154,6 +369,12 @@ public class ForumService {
         }
         
         Comment savedComment = commentRepository.save(comment);
+        CommentResponse response = mapToCommentResponse(savedComment);
+        ForumDelta delta = delta(PostChangedEvent.Change.COMMENT_ADDED, null, post.getId());
+        delta.setCommentId(savedComment.getId());
+        delta.setParentId(parentId);
+        delta.setComment(response);
+        publishChange(post, PostChangedEvent.Change.COMMENT_ADDED, delta);
 
         // Notify students of official responses
         if (user.getRole() == Role.PROFESSOR || user.getRole() == Role.ADMIN) {
@@ -186,79 +407,105 @@ public class ForumService {
             }
         }
 
-        return mapToCommentResponse(savedComment);
+        return response;
     }
 
     @Autowired
     private VoteRepository voteRepository;
 
     /**
-     * Handles voting on a post.
+     * Handles voting on a post. The score moves through an atomic in-database increment,
+     * so the post itself is never loaded or rewritten.
      */
-    public void votePost(Long postId, int value, String userEmail) {
+    @Transactional
+    public VoteResponse votePost(Long postId, int value, String userEmail) {
         if (postId == null) throw new IllegalArgumentException("Post ID required");
         if (value != 1 && value != -1) throw new IllegalArgumentException("Vote value must be 1 or -1");
         
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new RuntimeException("User not found"));
-        Post post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
+        Long forumId = postRepository.findForumIdById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
+
+        if (voteBuffer.isEnabled()) {
+            VoteResponse response = voteBuffer.record(VoteBuffer.Target.POST, postId, user.getId(), value,
+                    () -> voteRepository.findByUserIdAndPostId(user.getId(), postId).map(Vote::getValue).orElse(0),
+                    () -> postRepository.findScoreById(postId).orElse(0));
+            publishScore(PostChangedEvent.Change.VOTED, forumId, postId, null, response.getScore());
+            return response;
+        }
         
-        // Check existing vote
         Vote existingVote = voteRepository.findByUserIdAndPostId(user.getId(), postId).orElse(null);
-        
-        if (existingVote != null) {
-            // Undo vote if same value, else change vote
-            if (existingVote.getValue() == value) {
-                post.setScore(post.getScore() - value);
-                voteRepository.delete(existingVote);
-            } else {
-                // Change vote: remove old value, add new value (difference is 2*value or similar logic)
-                // Actually: score - old + new
-                post.setScore(post.getScore() - existingVote.getValue() + value);
-                existingVote.setValue(value);
-                voteRepository.save(existingVote);
-            }
-        } else {
-            // New vote
+        VoteOutcome outcome = applyVote(existingVote, value, () -> {
             Vote vote = new Vote();
             vote.setUser(user);
-            vote.setPost(post);
-            vote.setValue(value);
-            voteRepository.save(vote);
-            post.setScore(post.getScore() + value);
-        }
-        postRepository.save(post);
+            vote.setPost(postRepository.getReferenceById(postId));
+            return vote;
+        });
+
+        postRepository.addToScore(postId, outcome.delta());
+        int score = postRepository.findScoreById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
+        publishScore(PostChangedEvent.Change.VOTED, forumId, postId, null, score);
+        return new VoteResponse(postId, score, outcome.userVote());
     }
     
     /**
-     * Handles voting on a comment.
+     * Handles voting on a comment. The score moves through an atomic in-database increment,
+     * so the comment itself is never loaded or rewritten.
      */
-    public void voteComment(Long commentId, int value, String userEmail) {
+    @Transactional
+    public VoteResponse voteComment(Long commentId, int value, String userEmail) {
         if (commentId == null) throw new IllegalArgumentException("Comment ID required");
         if (value != 1 && value != -1) throw new IllegalArgumentException("Vote value must be 1 or -1");
         
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new RuntimeException("User not found"));
-        Comment comment = commentRepository.findById(commentId).orElseThrow(() -> new RuntimeException("Comment not found"));
+        CommentParentView parent = commentRepository.findParentById(commentId).orElseThrow(() -> new RuntimeException("Comment not found"));
+
+        if (voteBuffer.isEnabled()) {
+            VoteResponse response = voteBuffer.record(VoteBuffer.Target.COMMENT, commentId, user.getId(), value,
+                    () -> voteRepository.findByUserIdAndCommentId(user.getId(), commentId).map(Vote::getValue).orElse(0),
+                    () -> commentRepository.findScoreById(commentId).orElse(0));
+            publishScore(PostChangedEvent.Change.COMMENT_VOTED, parent.getForumId(), parent.getPostId(), commentId, response.getScore());
+            return response;
+        }
         
         Vote existingVote = voteRepository.findByUserIdAndCommentId(user.getId(), commentId).orElse(null);
-        
-        if (existingVote != null) {
-            if (existingVote.getValue() == value) {
-                comment.setScore(comment.getScore() - value);
-                voteRepository.delete(existingVote);
-            } else {
-                comment.setScore(comment.getScore() - existingVote.getValue() + value);
-                existingVote.setValue(value);
-                voteRepository.save(existingVote);
-            }
-        } else {
+        VoteOutcome outcome = applyVote(existingVote, value, () -> {
             Vote vote = new Vote();
             vote.setUser(user);
-            vote.setComment(comment);
+            vote.setComment(commentRepository.getReferenceById(commentId));
+            return vote;
+        });
+
+        commentRepository.addToScore(commentId, outcome.delta());
+        int score = commentRepository.findScoreById(commentId).orElseThrow(() -> new RuntimeException("Comment not found"));
+        publishScore(PostChangedEvent.Change.COMMENT_VOTED, parent.getForumId(), parent.getPostId(), commentId, score);
+        return new VoteResponse(commentId, score, outcome.userVote());
+    }
+
+    /**
+     * Records, changes or withdraws the caller's vote row and returns the resulting score delta.
+     */
+    private VoteOutcome applyVote(Vote existingVote, int value, java.util.function.Supplier<Vote> newVote) {
+        if (existingVote == null) {
+            Vote vote = newVote.get();
             vote.setValue(value);
-            voteRepository.save(vote);
-            comment.setScore(comment.getScore() + value);
+            // Flush now so the unique (user, target) constraint rejects a duplicate before the score moves
+            voteRepository.saveAndFlush(vote);
+            return new VoteOutcome(value, value);
         }
-        commentRepository.save(comment);
+
+        if (existingVote.getValue() == value) {
+            // Undo vote if same value
+            if (voteRepository.deleteIfUnchanged(existingVote.getId(), value) == 0) {
+                throw new IllegalStateException("Vote changed concurrently, please retry");
+            }
+            return new VoteOutcome(-value, 0);
+        }
+
+        // Change vote: score - old + new
+        if (voteRepository.updateValueIfUnchanged(existingVote.getId(), existingVote.getValue(), value) == 0) {
+            throw new IllegalStateException("Vote changed concurrently, please retry");
+        }
+        return new VoteOutcome(value - existingVote.getValue(), value);
     }
 
     /**
@@ -275,6 +522,7 @@ public class ForumService {
         }
         if (post != null) {
             postRepository.delete(post);
+            publishChange(post, PostChangedEvent.Change.DELETED, delta(PostChangedEvent.Change.DELETED, null, post.getId()));
         }
     }
 
@@ -292,6 +540,9 @@ public class ForumService {
         }
         if (comment != null) {
             commentRepository.delete(comment);
+            ForumDelta delta = delta(PostChangedEvent.Change.COMMENT_DELETED, null, comment.getPost().getId());
+            delta.setCommentId(comment.getId());
+            publishChange(comment.getPost(), PostChangedEvent.Change.COMMENT_DELETED, delta);
         }
     }
 
@@ -311,6 +562,10 @@ public class ForumService {
         post.setContent(newContent);
         post.setEditedAt(java.time.LocalDateTime.now());
         Post updatedPost = postRepository.save(post);
+        ForumDelta delta = delta(PostChangedEvent.Change.EDITED, null, updatedPost.getId());
+        delta.setContent(updatedPost.getContent());
+        delta.setEditedAt(updatedPost.getEditedAt());
+        publishChange(updatedPost, PostChangedEvent.Change.EDITED, delta);
         return mapToPostResponse(updatedPost);
     }
 
@@ -330,23 +585,74 @@ public class ForumService {
         comment.setContent(newContent);
         comment.setEditedAt(java.time.LocalDateTime.now());
         Comment updatedComment = commentRepository.save(comment);
+        ForumDelta delta = delta(PostChangedEvent.Change.COMMENT_EDITED, null, updatedComment.getPost().getId());
+        delta.setCommentId(updatedComment.getId());
+        delta.setContent(updatedComment.getContent());
+        delta.setEditedAt(updatedComment.getEditedAt());
+        publishChange(updatedComment.getPost(), PostChangedEvent.Change.COMMENT_EDITED, delta);
         return mapToCommentResponse(updatedComment);
     }
 
+    private void publishChange(Post post, PostChangedEvent.Change change, ForumDelta delta) {
+        if (post == null) return;
+        Long forumId = post.getForum() != null ? post.getForum().getId() : null;
+        delta.setForumId(forumId);
+        eventPublisher.publishEvent(new PostChangedEvent(post.getId(), forumId, change, delta));
+    }
+
+    private void publishScore(PostChangedEvent.Change change, Long forumId, Long postId, Long commentId, int score) {
+        ForumDelta delta = delta(change, forumId, postId);
+        delta.setCommentId(commentId);
+        delta.setScore(score);
+        eventPublisher.publishEvent(new PostChangedEvent(postId, forumId, change, delta));
+    }
+
+    private static ForumDelta delta(PostChangedEvent.Change change, Long forumId, Long postId) {
+        ForumDelta delta = new ForumDelta();
+        delta.setType(change.name());
+        delta.setForumId(forumId);
+        delta.setPostId(postId);
+        return delta;
+    }
+
     private PostResponse mapToPostResponse(Post post) {
-        List<CommentResponse> commentResponses = new ArrayList<>();
-        if (post.getComments() != null) {
-            // Sort comments: pinned first, then by score, then by date
-            commentResponses = post.getComments().stream()
-                    .filter(c -> c.getParent() == null) // Top level comments
-                    .sorted((c1, c2) -> {
-                        if (c1.isPinned() != c2.isPinned()) return c1.isPinned() ? -1 : 1;
-                        if (c1.getScore() != c2.getScore()) return c2.getScore() - c1.getScore();
-                        return c2.getTimestamp().compareTo(c1.getTimestamp());
-                    })
-                    .map(this::mapToCommentResponse)
-                    .collect(Collectors.toList());
+        return mapToPostResponse(post, commentMaxDepth, commentReplyLimit);
+    }
+
+    private PostResponse mapToPostResponse(Post post, int maxDepth, int replyLimit) {
+        if (post.getId() == null) {
+            return mapToPostResponse(post, new CursorPage<>(new ArrayList<>(), null, false), 0);
+        }
+        // Only the first slice is read, so a single post costs the same however large its thread is
+        CursorPage<CommentResponse> firstSlice = CommentThreadLoader.of(commentRepository, post.getId(), this::mapToAuthorDto)
+                .slice(null, maxDepth, replyLimit);
+        return mapToPostResponse(post, firstSlice, (int) commentRepository.countByPostId(post.getId()));
+    }
+
+    /**
+     * Maps a page of posts with only the first comment slice of each, read level by level for
+     * all posts together, and the comment counts of all of them from one grouped query.
+     */
+    private List<PostResponse> mapToPostResponses(List<Post> posts) {
+        if (posts.isEmpty()) return new ArrayList<>();
+        List<Long> postIds = posts.stream().map(Post::getId).toList();
+        Map<Long, CursorPage<CommentResponse>> firstSlices = CommentThreadLoader.firstSlices(
+                commentRepository, postIds, this::mapToAuthorDto, commentMaxDepth, commentReplyLimit);
+        Map<Long, Long> commentCounts = new HashMap<>();
+        for (CommentCountView count : commentRepository.countByPostIdIn(postIds)) {
+            commentCounts.put(count.getPostId(), count.getCommentCount());
+        }
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            responses.add(mapToPostResponse(post, firstSlices.get(post.getId()),
+                    commentCounts.getOrDefault(post.getId(), 0L).intValue()));
         }
+        return responses;
+    }
+
+    private PostResponse mapToPostResponse(Post post, CursorPage<CommentResponse> firstSlice, int commentCount) {
+        List<CommentResponse> commentResponses = addPendingScores(firstSlice.getItems());
+        String commentsCursor = firstSlice.getNextCursor();
 
         return new PostResponse(
                 post.getId(),
@@ -357,11 +663,26 @@ public class ForumService {
                 post.getTimestamp(),
                 post.getEditedAt(),
                 post.isPinned(),
-                post.getScore(),
-                commentResponses
+                post.getScore() + voteBuffer.pendingScoreDelta(VoteBuffer.Target.POST, post.getId()),
+                commentResponses,
+                commentCount,
+                commentsCursor
         );
     }
 
+    /**
+     * Adds votes still buffered for write-behind to comment scores read from the database,
+     * the same way post scores are overlaid.
+     */
+    private List<CommentResponse> addPendingScores(List<CommentResponse> comments) {
+        if (comments == null) return null;
+        for (CommentResponse comment : comments) {
+            comment.setScore(comment.getScore() + voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, comment.getId()));
+            addPendingScores(comment.getReplies());
+        }
+        return comments;
+    }
+
     private CommentResponse mapToCommentResponse(Comment comment) {
         List<CommentResponse> replies = new ArrayList<>();
         if (comment.getReplies() != null) {
@@ -379,30 +700,96 @@ public class ForumService {
                 comment.getPost().getId(),
                 comment.getTimestamp(),
                 comment.getEditedAt(),
-                comment.getScore(),
+                comment.getScore() + voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, comment.getId()),
                 comment.getParent() != null ? comment.getParent().getId() : null,
                 replies
         );
     }
 
+    private PostSummary mapToPostSummary(PostSummaryView row) {
+        String excerpt = row.getExcerpt();
+        if (excerpt != null && excerpt.length() > PostRepository.EXCERPT_LENGTH) {
+            excerpt = excerpt.substring(0, PostRepository.EXCERPT_LENGTH) + "...";
+        }
+
+        // Last activity is the latest of creation, edit and newest comment
+        LocalDateTime lastActivity = row.getTimestamp();
+        if (row.getEditedAt() != null && (lastActivity == null || row.getEditedAt().isAfter(lastActivity))) {
+            lastActivity = row.getEditedAt();
+        }
+        if (row.getLastCommentAt() != null && (lastActivity == null || row.getLastCommentAt().isAfter(lastActivity))) {
+            lastActivity = row.getLastCommentAt();
+        }
+
+        AuthorDto author = authorDtoCache.get(row.getAuthorId(), () -> mapToAuthorDto(row.getAuthorId(), row.getAuthorRole(),
+                row.getAuthorFirstName(), row.getAuthorLastName(), row.getAuthorNickname(), row.getAuthorEmail()));
+
+        return new PostSummary(
+                row.getId(),
+                row.getTitle(),
+                excerpt,
+                author,
+                row.getScore(),
+                row.getPinned(),
+                row.getCommentCount(),
+                lastActivity
+        );
+    }
+
+    private AuthorDto mapToAuthorDto(CommentRowView row) {
+        return authorDtoCache.get(row.getAuthorId(), () -> mapToAuthorDto(row.getAuthorId(), row.getAuthorRole(),
+                row.getAuthorFirstName(), row.getAuthorLastName(), row.getAuthorNickname(), row.getAuthorEmail()));
+    }
+
     private AuthorDto mapToAuthorDto(User user) {
+        // Only the id is read on a hit, so a lazy author proxy is never initialized
+        return authorDtoCache.get(user.getId(), () -> mapToAuthorDto(user.getId(), user.getRole(), user.getFirstName(),
+                user.getLastName(), user.getNickname(), user.getEmail()));
+    }
+
+    private AuthorDto mapToAuthorDto(Long id, Role role, String firstName, String lastName, String nickname, String email) {
         AuthorDto dto = new AuthorDto();
-        dto.setId(user.getId());
-        dto.setRole(user.getRole());
+        dto.setId(id);
+        dto.setRole(role);
 
-        if (user.getRole() == Role.STUDENT) {
+        if (role == Role.STUDENT) {
             // Anonymize students mostly, or show nickname
-            dto.setDisplayName(user.getNickname());
+            dto.setDisplayName(nickname);
             dto.setEmail(null); 
-        } else if (user.getRole() == Role.ADMIN) {
+        } else if (role == Role.ADMIN) {
             // Admins show name
-            dto.setDisplayName(user.getFirstName() + " " + user.getLastName());
+            dto.setDisplayName(firstName + " " + lastName);
             dto.setEmail(null);
         } else {
             // Professors show name and email
-            dto.setDisplayName(user.getFirstName() + " " + user.getLastName());
-            dto.setEmail(user.getEmail());
+            dto.setDisplayName(firstName + " " + lastName);
+            dto.setEmail(email);
         }
         return dto;
     }
+
+    private record VoteOutcome(int delta, int userVote) {
+    }
+
+    /**
+     * Sort key of a post in forum listings, serialized as the keyset pagination cursor.
+     */
+    private record PostKey(boolean pinned, int score, LocalDateTime timestamp, Long id) {
+        String encode() {
+            return CursorCodec.encode(pinned, score, timestamp, id);
+        }
+
+        static PostKey decode(String cursor) {
+            String[] parts = CursorCodec.decode(cursor, 4);
+            try {
+                return new PostKey(
+                        Boolean.parseBoolean(parts[0]),
+                        Integer.parseInt(parts[1]),
+                        LocalDateTime.parse(parts[2]),
+                        Long.parseLong(parts[3]));
+            } catch (java.time.format.DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.forum.service;
+
+import com.forum.model.Role;
+import com.forum.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the university roster sync for students after a successful login, off the request thread.
+ * <p>
+ * A student whose persisted {@code rosterSyncedAt} is less than {@code minIntervalMs} old is
+ * skipped, so repeated logins during the start-of-semester rush cost nothing beyond
+ * authentication, on every instance and across restarts. Syncs run on a small pool with a
+ * bounded queue. When the queue is full the sync is dropped, and the next login retries it.
+ */
+@Component
+public class LoginSync {
+    private static final Logger logger = LoggerFactory.getLogger(LoginSync.class);
+
+    @Value("${forum.app.loginSync.threads:2}")
+    private int threads = 2;
+
+    @Value("${forum.app.loginSync.queueCapacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${forum.app.loginSync.minIntervalMs:900000}")
+    private long minIntervalMs = 900000;
+
+    @Autowired
+    private UserService userService;
+
+    private ThreadPoolExecutor executor;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "login-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a roster sync for the student unless one ran recently or is already pending.
+     */
+    public void submit(User user) {
+        if (user == null || user.getRole() != Role.STUDENT) {
+            return;
+        }
+        LocalDateTime last = user.getRosterSyncedAt();
+        if (last != null && last.isAfter(LocalDateTime.now().minus(Duration.ofMillis(minIntervalMs)))) {
+            return;
+        }
+        String email = user.getEmail();
+        if (!inFlight.add(email)) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(email));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(email);
+            logger.warn("Login sync queue is full, skipping sync for {}", email);
+        }
+    }
+
+    private void run(String email) {
+        try {
+            userService.syncStudentData(email);
+        } catch (RuntimeException e) {
+            logger.error("Login sync failed for {}: {}", email, e.getMessage());
+        } finally {
+            inFlight.remove(email);
+        }
+    }
+}
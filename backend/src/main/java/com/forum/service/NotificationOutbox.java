@@ -0,0 +1,540 @@
+package com.forum.service;
+
+import com.forum.dto.NotificationDto;
+import com.forum.model.NotificationOutboxEntry;
+import com.forum.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes notification writes off the request path.
+ * <p>
+ * Every notification is first staged as a row of the {@code notification_outbox} table, inside
+ * the transaction that caused it, so a crash can no longer lose it. After commit it goes into a
+ * bounded in-memory queue, together with the recipient's other notifications from that
+ * transaction, so they are coalesced and inserted as one unit. A background worker drains the queue, claims each batch's outbox rows
+ * by deleting them, inserts the notification rows with one JDBC batch in the same transaction,
+ * and then pushes the saved notifications over WebSocket. A row deleted by someone else is
+ * skipped, so a notification is never delivered twice.
+ * <p>
+ * Rows the queue did not deliver (a full queue, a failed batch, a crash) are drained on a
+ * schedule once they are older than {@code coalesceWindowMs + outboxGraceMs}. If a drained batch fails, its rows
+ * are retried one by one; a row that violates a constraint, such as one for a deleted
+ * recipient, is dropped with an error instead of blocking the rows behind it.
+ * <p>
+ * Repeats of the same event are coalesced. The first notification for a
+ * (recipient, type, related entity) key is delivered at once and opens a window of
+ * {@code coalesceWindowMs}. Repeats inside the window are held by it and keep their outbox
+ * rows. When the window closes, one transaction claims those rows and adds them to the original
+ * row's count, and the row is pushed again. A window is only dropped once that commits; until
+ * then it is retried, and if it never succeeds the rows are still in the outbox.
+ */
+@Component
+public class NotificationOutbox implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutbox.class);
+
+    private static final String INSERT_SQL = "INSERT INTO notifications " +
+            "(user_id, message, type, related_entity_id, is_read, timestamp, count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_SQL = "DELETE FROM notification_outbox WHERE id = ?";
+
+    private static final String MERGE_SQL = "UPDATE notifications " +
+            "SET count = count + ?, timestamp = ?, is_read = false WHERE id = ?";
+
+    /**
+     * A notification staged in the outbox table; {@code outboxId} is its row there.
+     */
+    record Pending(Long outboxId, Long recipientId, String message, String type, Long relatedEntityId,
+                   LocalDateTime timestamp, long enqueuedAt, int count) {
+        CoalesceKey key() {
+            return new CoalesceKey(recipientId, type, relatedEntityId);
+        }
+    }
+
+    /**
+     * A notification to stage for a recipient.
+     */
+    record Draft(String message, String type, Long relatedEntityId) {
+    }
+
+    private record CoalesceKey(Long recipientId, String type, Long relatedEntityId) {
+    }
+
+    /**
+     * What one batch becomes: rows to insert, and repeats to fold into open windows after commit.
+     */
+    private record Plan(List<Pending> leaders, List<Pending> folded) {
+    }
+
+    private record Delivery(Plan plan, List<Long> ids) {
+    }
+
+    private record Merge(Window window, int count) {
+    }
+
+    /**
+     * A delivered notification that absorbs repeats of its event until the window closes.
+     */
+    private static final class Window {
+        private final Pending leader;
+        private final long rowId;
+        private final long openedAt;
+        // Repeats whose outbox rows are claimed only when the window is merged
+        private final List<Pending> folded = new ArrayList<>();
+        private LocalDateTime latest;
+
+        private Window(Pending leader, long rowId, long openedAt) {
+            this.leader = leader;
+            this.rowId = rowId;
+            this.openedAt = openedAt;
+            this.latest = leader.timestamp();
+        }
+    }
+
+    @Value("${forum.app.notifications.queueCapacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${forum.app.notifications.batchSize:200}")
+    private int batchSize = 200;
+
+    @Value("${forum.app.notifications.pollTimeoutMs:200}")
+    private long pollTimeoutMs = 200;
+
+    @Value("${forum.app.notifications.coalesceWindowMs:60000}")
+    private long coalesceWindowMs = 60000;
+
+    @Value("${forum.app.notifications.outboxGraceMs:30000}")
+    private long outboxGraceMs = 30000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // One element per recipient and transaction
+    private BlockingQueue<List<Pending>> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    // Only touched by the worker thread
+    private final Map<CoalesceKey, Window> windows = new HashMap<>();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder drainCount = new LongAdder();
+    private final LongAdder drainNanos = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::run, "notification-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stages and queues a notification outside of any transaction.
+     */
+    public void submit(Long recipientId, String message, String type, Long relatedEntityId) {
+        release(stage(recipientId, List.of(new Draft(message, type, relatedEntityId))));
+    }
+
+    /**
+     * Writes a recipient's notifications to the outbox table, as part of the caller's transaction
+     * if there is one. Hand the result to {@link #release} once that transaction has committed.
+     */
+    List<Pending> stage(Long recipientId, List<Draft> drafts) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutboxEntry> entries = outboxRepository.saveAll(drafts.stream()
+                .map(d -> new NotificationOutboxEntry(null, recipientId, d.message(), d.type(), d.relatedEntityId(), now))
+                .toList());
+        long enqueuedAt = System.nanoTime();
+        return entries.stream()
+                .map(e -> new Pending(e.getId(), recipientId, e.getMessage(), e.getType(), e.getRelatedEntityId(),
+                        e.getTimestamp(), enqueuedAt, 1))
+                .toList();
+    }
+
+    /**
+     * Queues one recipient's staged notifications for delivery as a unit; never blocks. If the
+     * queue is full the rows stay in the outbox table for {@link #drainOutbox}.
+     */
+    void release(List<Pending> unit) {
+        if (!unit.isEmpty() && !queue.offer(unit)) {
+            overflowed.add(unit.size());
+        }
+    }
+
+    /**
+     * Number of queued units (one recipient's notifications from one transaction).
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                List<Pending> unit = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (unit != null) {
+                    // Units are never split, so a batch may end up slightly above batchSize
+                    do {
+                        batch.addAll(unit);
+                    } while (batch.size() < batchSize && (unit = queue.poll()) != null);
+                    deliver(batch);
+                }
+                closeWindows(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Notification delivery failed: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+        try {
+            closeWindows(true);
+        } catch (RuntimeException e) {
+            // The repeats keep their outbox rows, so the next run delivers them
+            logger.error("Could not merge coalesced notifications on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(List<Pending> batch) {
+        // Expired windows must be merged before the same key can open a new one
+        closeWindows(false);
+        Delivery delivery;
+        try {
+            delivery = new TransactionTemplate(transactionManager).execute(status -> {
+                Plan plan = coalesce(batch);
+                List<Long> ids = plan.leaders().isEmpty() ? List.of() : insert(plan.leaders());
+                return new Delivery(plan, ids);
+            });
+        } catch (RuntimeException e) {
+            // Rolled back, so the rows are still in the outbox and the scheduled drain retries them
+            logger.error("Notification batch failed, leaving {} in the outbox: {}", batch.size(), e.getMessage());
+            failed.add(batch.size());
+            return;
+        }
+
+        Plan plan = delivery.plan();
+        List<Long> ids = delivery.ids();
+        for (Pending pending : plan.folded()) {
+            Window window = windows.get(pending.key());
+            window.folded.add(pending);
+            window.latest = pending.timestamp();
+        }
+        if (coalesceWindowMs > 0 && ids != null && ids.size() == plan.leaders().size()) {
+            long openedAt = System.nanoTime();
+            for (int i = 0; i < plan.leaders().size(); i++) {
+                Pending leader = plan.leaders().get(i);
+                windows.put(leader.key(), new Window(leader, ids.get(i), openedAt));
+            }
+        }
+        int rows = plan.folded().size();
+        for (Pending leader : plan.leaders()) {
+            rows += leader.count();
+        }
+        coalesced.add(rows - plan.leaders().size());
+        dispatch(plan.leaders(), ids);
+
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            drainNanos.add(now - pending.enqueuedAt());
+        }
+        drainCount.add(batch.size());
+    }
+
+    /**
+     * Deletes the batch's outbox rows and returns the notifications whose row this call removed.
+     * The rest were delivered by someone else in the meantime.
+     */
+    private List<Pending> claim(List<Pending> batch) {
+        if (batch.isEmpty()) return batch;
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, batch, batch.size(),
+                (ps, pending) -> ps.setLong(1, pending.outboxId()));
+        List<Pending> claimed = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            // SUCCESS_NO_INFO (-2) from a rewritten batch counts as claimed
+            if (counts[0][i] != 0) {
+                claimed.add(batch.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Picks repeats that fold into open windows, claims the rest and groups them by key; each
+     * group becomes one row. Folded repeats keep their outbox rows until their window is merged.
+     * Windows are not touched, so a rolled back batch leaves no trace in them.
+     */
+    private Plan coalesce(List<Pending> batch) {
+        if (coalesceWindowMs <= 0) {
+            return new Plan(claim(batch), List.of());
+        }
+        List<Pending> folded = new ArrayList<>();
+        List<Pending> fresh = new ArrayList<>();
+        for (Pending pending : batch) {
+            (windows.containsKey(pending.key()) ? folded : fresh).add(pending);
+        }
+        Map<CoalesceKey, List<Pending>> groups = new LinkedHashMap<>();
+        for (Pending pending : claim(fresh)) {
+            groups.computeIfAbsent(pending.key(), k -> new ArrayList<>()).add(pending);
+        }
+        List<Pending> leaders = new ArrayList<>(groups.size());
+        for (List<Pending> group : groups.values()) {
+            Pending first = group.get(0);
+            Pending last = group.get(group.size() - 1);
+            leaders.add(new Pending(first.outboxId(), first.recipientId(), first.message(), first.type(),
+                    first.relatedEntityId(), last.timestamp(), first.enqueuedAt(), group.size()));
+        }
+        return new Plan(leaders, folded);
+    }
+
+    /**
+     * Merges expired windows (or all of them) into their rows and pushes the updated notifications.
+     * The windows are only removed once the merge has committed; after a failure they stay open
+     * and are retried on the next call.
+     */
+    private void closeWindows(boolean all) {
+        if (windows.isEmpty()) return;
+        long now = System.nanoTime();
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs);
+        List<Window> closing = new ArrayList<>();
+        for (Window window : windows.values()) {
+            if (all || now - window.openedAt >= windowNanos) {
+                closing.add(window);
+            }
+        }
+        if (closing.isEmpty()) return;
+
+        List<Merge> merges;
+        try {
+            merges = new TransactionTemplate(transactionManager).execute(status -> merge(closing));
+        } catch (RuntimeException e) {
+            logger.error("Could not merge {} coalesced notifications, keeping them for a retry: {}",
+                    closing.size(), e.getMessage());
+            return;
+        }
+        for (Window window : closing) {
+            windows.remove(window.leader.key(), window);
+        }
+        for (Merge merge : merges) {
+            Window window = merge.window();
+            Pending leader = window.leader;
+            push(leader.recipientId(), new NotificationDto(window.rowId, leader.message(), leader.type(),
+                    leader.relatedEntityId(), false, window.latest, leader.count() + merge.count()));
+        }
+    }
+
+    /**
+     * Claims the repeats held by the windows and adds them to their rows' counts.
+     */
+    private List<Merge> merge(List<Window> closing) {
+        List<Pending> folded = new ArrayList<>();
+        closing.forEach(window -> folded.addAll(window.folded));
+        Map<CoalesceKey, Integer> claimed = new HashMap<>();
+        for (Pending pending : claim(folded)) {
+            claimed.merge(pending.key(), 1, Integer::sum);
+        }
+        List<Merge> merges = new ArrayList<>();
+        for (Window window : closing) {
+            int count = claimed.getOrDefault(window.leader.key(), 0);
+            if (count > 0) {
+                merges.add(new Merge(window, count));
+            }
+        }
+        if (!merges.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_SQL, merges, merges.size(), (ps, merge) -> {
+                ps.setInt(1, merge.count());
+                ps.setTimestamp(2, Timestamp.valueOf(merge.window().latest));
+                ps.setLong(3, merge.window().rowId);
+            });
+        }
+        return merges;
+    }
+
+    /**
+     * Delivers notifications left in the outbox table, oldest first. Rows that may still be
+     * queued or held by a coalescing window are left alone.
+     */
+    @Scheduled(fixedDelayString = "${forum.app.notifications.outboxPollIntervalMs:5000}")
+    public void drainOutbox() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(coalesceWindowMs + outboxGraceMs));
+        List<NotificationOutboxEntry> entries = outboxRepository.findByTimestampBeforeOrderByIdAsc(cutoff, Limit.of(batchSize));
+        if (entries.isEmpty()) return;
+
+        List<Pending> batch = new ArrayList<>(entries.size());
+        for (NotificationOutboxEntry entry : entries) {
+            batch.add(new Pending(entry.getId(), entry.getRecipientId(), entry.getMessage(), entry.getType(),
+                    entry.getRelatedEntityId(), entry.getTimestamp(), System.nanoTime(), 1));
+        }
+        try {
+            deliverClaimed(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Outbox batch failed, retrying {} rows one by one: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    deliverClaimed(List.of(pending));
+                } catch (DataIntegrityViolationException rowError) {
+                    drop(pending, rowError);
+                } catch (RuntimeException rowError) {
+                    // Not the row's fault (database down, timeout): keep it for the next run
+                    logger.error("Could not deliver outbox row {}: {}", pending.outboxId(), rowError.getMessage());
+                    return;
+                }
+            }
+        }
+        logger.debug("Delivered {} notifications from the outbox", batch.size());
+    }
+
+    /**
+     * Claims and inserts the given rows in one transaction, then pushes them.
+     */
+    private void deliverClaimed(List<Pending> batch) {
+        Delivery delivery = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Pending> claimed = claim(batch);
+            return new Delivery(new Plan(claimed, List.of()), claimed.isEmpty() ? List.of() : insert(claimed));
+        });
+        dispatch(delivery.plan().leaders(), delivery.ids());
+    }
+
+    /**
+     * Removes an outbox row that can never be inserted, so it no longer blocks the rows after it.
+     */
+    private void drop(Pending pending, RuntimeException cause) {
+        logger.error("Dropping undeliverable notification {} for user {} ({}: {}): {}", pending.outboxId(),
+                pending.recipientId(), pending.type(), pending.message(), cause.getMessage());
+        try {
+            outboxRepository.deleteById(pending.outboxId());
+            dropped.increment();
+        } catch (RuntimeException e) {
+            logger.error("Could not drop outbox row {}: {}", pending.outboxId(), e.getMessage());
+        }
+    }
+
+    private List<Long> insert(List<Pending> batch) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Pending pending : batch) {
+                    ps.setLong(1, pending.recipientId());
+                    ps.setString(2, pending.message());
+                    ps.setString(3, pending.type());
+                    ps.setObject(4, pending.relatedEntityId(), Types.BIGINT);
+                    ps.setBoolean(5, false);
+                    ps.setTimestamp(6, Timestamp.valueOf(pending.timestamp()));
+                    ps.setInt(7, pending.count());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(batch.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    private void dispatch(List<Pending> batch, List<Long> ids) {
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            Long id = ids != null && i < ids.size() ? ids.get(i) : null;
+            push(pending.recipientId(), new NotificationDto(id, pending.message(), pending.type(),
+                    pending.relatedEntityId(), false, pending.timestamp(), pending.count()));
+        }
+        delivered.add(batch.size());
+    }
+
+    private void push(Long recipientId, NotificationDto dto) {
+        try {
+            // Delivered to every session of the recipient on /user/queue/notifications
+            messagingTemplate.convertAndSendToUser(String.valueOf(recipientId), "/queue/notifications", dto);
+        } catch (RuntimeException e) {
+            // The row is saved, so the user still sees it in the inbox
+            logger.warn("Could not push notification to user {}: {}", recipientId, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the worker. Whatever is still queued already has its outbox row for the next run.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queue.isEmpty()) {
+            logger.info("Leaving {} queued notifications in the outbox", queue.size());
+            queue.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("forum.notifications.queue.depth", this, NotificationOutbox::queueDepth).register(registry);
+        FunctionCounter.builder("forum.notifications.delivered", delivered, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.notifications.overflowed", overflowed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.notifications.failed", failed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.notifications.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.notifications.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionTimer.builder("forum.notifications.drain.latency", this,
+                o -> o.drainCount.sum(), o -> o.drainNanos.sum(), TimeUnit.NANOSECONDS).register(registry);
+    }
+}
@@ -0,0 +1,146 @@
+package com.forum.service;
+
+import com.forum.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes old notifications on a schedule.
+ * <p>
+ * Two rules apply: read notifications older than {@code readMaxAgeDays} are removed, and
+ * each user keeps at most {@code maxPerUser} notifications, newest first. Rows are deleted
+ * by primary key in chunks of {@code chunkSize}. Each chunk runs in its own short transaction,
+ * with a pause between chunks, so the table is never locked for long.
+ */
+@Component
+public class NotificationRetentionJob implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    /**
+     * Rows reclaimed by one run, per rule.
+     */
+    public record Result(long aged, long overCap) {
+        public long total() {
+            return aged + overCap;
+        }
+    }
+
+    @Value("${forum.app.notifications.retention.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${forum.app.notifications.retention.readMaxAgeDays:30}")
+    private int readMaxAgeDays = 30;
+
+    @Value("${forum.app.notifications.retention.maxPerUser:500}")
+    private int maxPerUser = 500;
+
+    @Value("${forum.app.notifications.retention.chunkSize:500}")
+    private int chunkSize = 500;
+
+    @Value("${forum.app.notifications.retention.pauseMs:100}")
+    private long pauseMs = 100;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LongAdder reclaimedAged = new LongAdder();
+    private final LongAdder reclaimedOverCap = new LongAdder();
+    private final AtomicLong lastRunReclaimed = new AtomicLong();
+
+    @Scheduled(cron = "${forum.app.notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!enabled) return;
+        try {
+            run();
+        } catch (RuntimeException e) {
+            logger.error("Notification retention run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies both retention rules once.
+     */
+    public Result run() {
+        long started = System.currentTimeMillis();
+        long aged = 0;
+        if (readMaxAgeDays > 0) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(readMaxAgeDays);
+            List<Long> ids;
+            do {
+                ids = notificationRepository.findReadIdsBefore(cutoff, Limit.of(chunkSize));
+                int deleted = deleteChunk(ids);
+                aged += deleted;
+                reclaimedAged.add(deleted);
+            } while (ids.size() == chunkSize && pause());
+        }
+
+        long overCap = 0;
+        if (maxPerUser > 0) {
+            for (Long userId : notificationRepository.findRecipientIdsWithMoreThan(maxPerUser)) {
+                List<Long> ids;
+                do {
+                    // Newest rows first; everything past the cap goes
+                    List<Long> newest = notificationRepository.findIdsByRecipientIdNewestFirst(userId, Limit.of(maxPerUser + chunkSize));
+                    ids = newest.size() > maxPerUser ? newest.subList(maxPerUser, newest.size()) : List.of();
+                    int deleted = deleteChunk(ids);
+                    overCap += deleted;
+                    reclaimedOverCap.add(deleted);
+                } while (ids.size() == chunkSize && pause());
+                if (!pause()) break;
+            }
+        }
+
+        Result result = new Result(aged, overCap);
+        lastRunReclaimed.set(result.total());
+        logger.info("Notification retention reclaimed {} rows ({} aged, {} over the per-user cap) in {} ms",
+                result.total(), aged, overCap, System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        Integer deleted = new TransactionTemplate(transactionManager)
+                .execute(status -> notificationRepository.deleteByIdIn(ids));
+        return deleted == null ? 0 : deleted;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) return true;
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("forum.notifications.retention.reclaimed", reclaimedAged, LongAdder::sum)
+                .tag("rule", "aged").register(registry);
+        FunctionCounter.builder("forum.notifications.retention.reclaimed", reclaimedOverCap, LongAdder::sum)
+                .tag("rule", "overCap").register(registry);
+        Gauge.builder("forum.notifications.retention.lastRun", lastRunReclaimed, AtomicLong::get).register(registry);
+    }
+}
@@ -1,83 +1,279 @@
 package com.forum.service;
 
+import com.forum.dto.CursorPage;
+import com.forum.dto.MarkReadRequest;
 import com.forum.dto.NotificationDto;
+import com.forum.model.Announcement;
+import com.forum.model.AnnouncementWatermark;
 import com.forum.model.Notification;
 import com.forum.model.User;
+import com.forum.repository.AnnouncementRepository;
+import com.forum.repository.AnnouncementWatermarkRepository;
 import com.forum.repository.NotificationRepository;
+import com.forum.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Service for handling notifications.
+ * <p>
+ * A user's inbox merges their own notification rows with the announcements of the forums
+ * they belong to. Announcements are stored once per forum, and a watermark per user and forum
+ * records how far that forum's announcements have been read.
  */
 @Service
 public class NotificationService {
 
+    public static final String ANNOUNCEMENT_TYPE = "ANNOUNCEMENT";
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private AnnouncementRepository announcementRepository;
+
+    @Autowired
+    private AnnouncementWatermarkRepository watermarkRepository;
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Value("${forum.app.notifications.pageSize:20}")
+    private int defaultPageSize = 20;
+
+    @Value("${forum.app.notifications.maxPageSize:100}")
+    private int maxPageSize = 100;
+
+    @Value("${forum.app.notifications.maxMarkReadIds:1000}")
+    private int maxMarkReadIds = 1000;
+
     /**
-     * Creates and sends a notification via WebSocket.
+     * Notifications created during one transaction, grouped by recipient. They are staged in the
+     * outbox table just before the commit, so they commit or roll back with the change, and each
+     * recipient's group is queued as one unit after it.
+     */
+    private class TransactionNotifications implements TransactionSynchronization {
+        private final Map<Long, List<NotificationOutbox.Draft>> byRecipient = new LinkedHashMap<>();
+        private final List<List<NotificationOutbox.Pending>> staged = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            byRecipient.forEach((recipientId, drafts) -> staged.add(notificationOutbox.stage(recipientId, drafts)));
+        }
+
+        @Override
+        public void afterCommit() {
+            staged.forEach(notificationOutbox::release);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(NotificationService.this);
+        }
+    }
+
+    /**
+     * Queues a notification for persistence and WebSocket delivery by the {@link NotificationOutbox}.
+     * Inside a transaction nothing is queued until it commits, and a rollback drops the notification.
      */
-    @Transactional
     public void createNotification(User recipient, String message, String type, Long relatedEntityId) {
-        Notification notification = new Notification();
-        notification.setRecipient(recipient);
-        notification.setMessage(message);
-        notification.setType(type);
-        notification.setRelatedEntityId(relatedEntityId);
-        
-        Notification saved = notificationRepository.save(notification);
-        
-        // Convert to DTO
-        NotificationDto dto = new NotificationDto(
-            saved.getId(),
-            saved.getMessage(),
-            saved.getType(),
-            saved.getRelatedEntityId(),
-            saved.isRead(),
-            saved.getTimestamp()
-        );
-
-        // Send via WebSocket
-        // Destination: /topic/notifications/{userId}
-        messagingTemplate.convertAndSend("/topic/notifications/" + recipient.getId(), dto);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notificationOutbox.submit(recipient.getId(), message, type, relatedEntityId);
+            return;
+        }
+        TransactionNotifications pending = (TransactionNotifications) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new TransactionNotifications();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.byRecipient.computeIfAbsent(recipient.getId(), id -> new ArrayList<>())
+                .add(new NotificationOutbox.Draft(message, type, relatedEntityId));
+    }
+
+    /**
+     * Stores one announcement for a whole forum and pushes it on the forum's announcement topic
+     * once the surrounding transaction (or its own, if there is none) has committed.
+     */
+    @Transactional
+    public void announce(Long forumId, String message, Long relatedEntityId) {
+        Announcement announcement = new Announcement();
+        announcement.setForumId(forumId);
+        announcement.setMessage(message);
+        announcement.setRelatedEntityId(relatedEntityId);
+        Announcement saved = announcementRepository.save(announcement);
+
+        NotificationDto dto = mapToDto(saved, false);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                messagingTemplate.convertAndSend("/topic/forums/" + forumId + "/announcements", dto);
+            }
+        });
     }
 
     /**
-     * Retrieves notifications for a user.
+     * Retrieves one page of a user's inbox, newest first: their notifications merged with the
+     * announcements of the given forums. Pass the previous page's cursor to continue.
+     * <p>
+     * The cursor keeps a separate position for each source, so both are read by keyset.
      */
-    public List<NotificationDto> getUserNotifications(User user) {
-        return notificationRepository.findByRecipientIdOrderByTimestampDesc(user.getId())
-                .stream()
-                .map(n -> new NotificationDto(
-                        n.getId(),
-                        n.getMessage(),
-                        n.getType(),
-                        n.getRelatedEntityId(),
-                        n.isRead(),
-                        n.getTimestamp()))
-                .collect(Collectors.toList());
+    public CursorPage<NotificationDto> getNotificationsPage(User user, List<Long> forumIds, String cursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        // Fetch one extra row per source to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+        String[] position = cursor == null || cursor.isBlank() ? new String[] {"", "", "", ""} : CursorCodec.decode(cursor, 4);
+
+        List<Notification> rows;
+        List<Announcement> announcements = List.of();
+        try {
+            rows = position[0].isEmpty()
+                    ? notificationRepository.findFirstPageByRecipientId(user.getId(), limit)
+                    : notificationRepository.findPageByRecipientIdBefore(user.getId(),
+                            LocalDateTime.parse(position[0]), Long.parseLong(position[1]), limit);
+            if (!forumIds.isEmpty()) {
+                announcements = position[2].isEmpty()
+                        ? announcementRepository.findFirstPageByForumIdIn(forumIds, limit)
+                        : announcementRepository.findPageByForumIdInBefore(forumIds,
+                                LocalDateTime.parse(position[2]), Long.parseLong(position[3]), limit);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        Map<Long, Long> watermarks = announcements.isEmpty() ? Map.of() : announcementWatermarks(user, forumIds);
+
+        List<NotificationDto> items = new ArrayList<>(pageSize);
+        int n = 0;
+        int a = 0;
+        while (items.size() < pageSize && (n < rows.size() || a < announcements.size())) {
+            boolean takeNotification = a >= announcements.size()
+                    || (n < rows.size() && !rows.get(n).getTimestamp().isBefore(announcements.get(a).getTimestamp()));
+            if (takeNotification) {
+                Notification row = rows.get(n++);
+                items.add(mapToDto(row));
+                position[0] = row.getTimestamp().toString();
+                position[1] = row.getId().toString();
+            } else {
+                Announcement announcement = announcements.get(a++);
+                long watermark = watermarks.getOrDefault(announcement.getForumId(), 0L);
+                items.add(mapToDto(announcement, announcement.getId() <= watermark));
+                position[2] = announcement.getTimestamp().toString();
+                position[3] = announcement.getId().toString();
+            }
+        }
+
+        boolean hasMore = n < rows.size() || a < announcements.size();
+        String nextCursor = hasMore ? CursorCodec.encode((Object[]) position) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Number of unread notifications for a user, plus unread announcements of the given forums,
+     * each forum counted against its own watermark.
+     */
+    public long getUnreadCount(User user, List<Long> forumIds) {
+        long unread = notificationRepository.countByRecipientIdAndIsReadFalse(user.getId());
+        if (!forumIds.isEmpty()) {
+            unread += announcementRepository.countUnread(user.getId(), forumIds);
+        }
+        return unread;
+    }
+
+    private Map<Long, Long> announcementWatermarks(User user, List<Long> forumIds) {
+        Map<Long, Long> watermarks = new HashMap<>();
+        for (AnnouncementWatermark watermark : watermarkRepository.findByUserIdAndForumIdIn(user.getId(), forumIds)) {
+            watermarks.put(watermark.getForumId(), watermark.getLastReadId());
+        }
+        return watermarks;
+    }
+
+    private NotificationDto mapToDto(Notification n) {
+        return new NotificationDto(
+                n.getId(),
+                n.getMessage(),
+                n.getType(),
+                n.getRelatedEntityId(),
+                n.isRead(),
+                n.getTimestamp(),
+                n.getCount());
+    }
+
+    private NotificationDto mapToDto(Announcement a, boolean read) {
+        return new NotificationDto(
+                a.getId(),
+                a.getMessage(),
+                ANNOUNCEMENT_TYPE,
+                a.getRelatedEntityId(),
+                read,
+                a.getTimestamp(),
+                1,
+                a.getForumId());
     }
     
     /**
-     * Marks a notification as read.
+     * Marks one of the user's notifications as read.
      */
-    public void markAsRead(Long notificationId) {
-        if (notificationId == null) {
-            return;
+    @Transactional
+    public void markAsRead(User user, Long notificationId) {
+        if (notificationId == null) throw new IllegalArgumentException("Notification ID required");
+        notificationRepository.markReadByIds(user.getId(), List.of(notificationId));
+    }
+
+    /**
+     * Moves the user's watermark for the announcement's forum up to it, so it and every older
+     * announcement of that forum count as read. Other forums are left as they are.
+     */
+    @Transactional
+    public void markAnnouncementsRead(User user, Long announcementId) {
+        if (announcementId == null) throw new IllegalArgumentException("Announcement ID required");
+        announcementRepository.findById(announcementId).ifPresent(announcement ->
+                watermarkRepository.advance(user.getId(), announcement.getForumId(), announcement.getId()));
+    }
+
+    /**
+     * Marks the given notifications, or everything up to a (timestamp, id) watermark,
+     * as read with a single update scoped to the user. Announcements up to
+     * {@code announcementUpToId} are marked read by moving each forum's watermark to that
+     * forum's newest announcement at or below it.
+     * @return The new unread count.
+     */
+    @Transactional
+    public long markAsRead(User user, List<Long> forumIds, MarkReadRequest request) {
+        if (request.getAnnouncementUpToId() != null) {
+            if (!forumIds.isEmpty()) {
+                watermarkRepository.advanceUpTo(user.getId(), forumIds, request.getAnnouncementUpToId());
+            }
+            if ((request.getIds() == null || request.getIds().isEmpty()) && request.getUpToId() == null) {
+                return getUnreadCount(user, forumIds);
+            }
         }
-        notificationRepository.findById(notificationId).ifPresent(n -> {
-            n.setRead(true);
-            notificationRepository.save(n);
-        });
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getIds().size() > maxMarkReadIds) {
+                throw new IllegalArgumentException("At most " + maxMarkReadIds + " ids per request");
+            }
+            notificationRepository.markReadByIds(user.getId(), request.getIds());
+        } else if (request.getUpToTimestamp() != null && request.getUpToId() != null) {
+            notificationRepository.markReadUpTo(user.getId(), request.getUpToTimestamp(), request.getUpToId());
+        } else {
+            throw new IllegalArgumentException("Either ids, upToTimestamp and upToId, or announcementUpToId required");
+        }
+        return getUnreadCount(user, forumIds);
     }
 }
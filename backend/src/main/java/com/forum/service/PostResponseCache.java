@@ -0,0 +1,189 @@
+package com.forum.service;
+
+import com.forum.dto.CommentResponse;
+import com.forum.dto.PostResponse;
+import com.forum.event.PostChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, size-aware LRU cache of fully built post responses keyed by post id.
+ * Cached responses are shared between requests and must not be modified.
+ * Entries are invalidated after commit by {@link PostChangedEvent}s.
+ */
+@Component
+public class PostResponseCache implements MeterBinder {
+
+    private static final int STAMP_STRIPES = 64;
+
+    @Value("${forum.app.cache.posts.maxEntries:1000}")
+    private int maxEntries = 1000;
+
+    @Value("${forum.app.cache.posts.maxWeightBytes:33554432}")
+    private long maxWeightBytes = 32L * 1024 * 1024;
+
+    private record Entry(int maxDepth, int replyLimit, PostResponse response, long weight) {
+    }
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    // Bumped per stripe on invalidation so a load that raced with a change is not stored
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Returns the cached response for a post built with the same thread limits, loading it on a miss.
+     */
+    public PostResponse get(Long postId, int maxDepth, int replyLimit, Supplier<PostResponse> loader) {
+        synchronized (entries) {
+            Entry entry = entries.get(postId);
+            if (entry != null && entry.maxDepth() == maxDepth && entry.replyLimit() == replyLimit) {
+                hits.increment();
+                return entry.response();
+            }
+        }
+        misses.increment();
+
+        long stamp = stamps.get(stripe(postId));
+        PostResponse response = loader.get();
+        long entryWeight = weigh(response);
+        if (entryWeight > maxWeightBytes) {
+            return response;
+        }
+
+        synchronized (entries) {
+            if (stamps.get(stripe(postId)) != stamp) {
+                return response;
+            }
+            Entry previous = entries.put(postId, new Entry(maxDepth, replyLimit, response, entryWeight));
+            if (previous != null) {
+                weight -= previous.weight();
+            }
+            weight += entryWeight;
+            evictOverflow();
+        }
+        return response;
+    }
+
+    public void invalidate(Long postId) {
+        if (postId == null) return;
+        stamps.incrementAndGet(stripe(postId));
+        synchronized (entries) {
+            Entry removed = entries.remove(postId);
+            if (removed != null) {
+                weight -= removed.weight();
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops everything, e.g. when an author's display data changes.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < STAMP_STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        invalidate(event.postId());
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long weightBytes() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("forum.cache.posts.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.cache.posts.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.cache.posts.evictions", evictions, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.cache.posts.invalidations", invalidations, LongAdder::sum).register(registry);
+        Gauge.builder("forum.cache.posts.size", this, PostResponseCache::size).register(registry);
+        Gauge.builder("forum.cache.posts.weight", this, PostResponseCache::weightBytes).baseUnit("bytes").register(registry);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeightBytes) && it.hasNext()) {
+            weight -= it.next().getValue().weight();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static int stripe(Long postId) {
+        return (int) (postId ^ (postId >>> 32)) & (STAMP_STRIPES - 1);
+    }
+
+    // Rough heap estimate: fixed overhead per object plus two bytes per character
+    static long weigh(PostResponse response) {
+        long total = 256 + 2L * (length(response.getTitle()) + length(response.getContent()));
+        if (response.getComments() != null) {
+            total += weigh(response.getComments());
+        }
+        return total;
+    }
+
+    private static long weigh(List<CommentResponse> comments) {
+        long total = 0;
+        for (CommentResponse comment : comments) {
+            total += 192 + 2L * length(comment.getContent());
+            if (comment.getReplies() != null) {
+                total += weigh(comment.getReplies());
+            }
+        }
+        return total;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
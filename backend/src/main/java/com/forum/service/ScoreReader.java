@@ -0,0 +1,40 @@
+package com.forum.service;
+
+import com.forum.dto.ForumDelta;
+import com.forum.repository.CommentRepository;
+import com.forum.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Reads the score clients should see right now: the stored score plus any votes still
+ * buffered for write-behind.
+ */
+@Component
+public class ScoreReader {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private VoteBuffer voteBuffer;
+
+    /**
+     * Current score of the post or comment a VOTED / COMMENT_VOTED delta is about;
+     * empty for other deltas or when the target is gone.
+     */
+    public Optional<Integer> currentScore(ForumDelta delta) {
+        return switch (delta.getType()) {
+            case "VOTED" -> postRepository.findScoreById(delta.getPostId())
+                    .map(score -> score + voteBuffer.pendingScoreDelta(VoteBuffer.Target.POST, delta.getPostId()));
+            case "COMMENT_VOTED" -> commentRepository.findScoreById(delta.getCommentId())
+                    .map(score -> score + voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, delta.getCommentId()));
+            default -> Optional.empty();
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.forum.service;
+
+import com.forum.repository.CommentRowView;
+import com.forum.util.CursorCodec;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position inside one sibling list: the parent (null for top level) and the sort key
+ * of the last comment already returned (absent to start from the beginning).
+ * Handed out and resumed by {@link CommentThreadLoader}.
+ */
+record ThreadCursor(Long postId, Long parentId, Long afterId, boolean pinned, int score, LocalDateTime timestamp) {
+
+    static ThreadCursor start(Long postId, Long parentId) {
+        return new ThreadCursor(postId, parentId, null, false, 0, null);
+    }
+
+    static ThreadCursor after(Long postId, Long parentId, CommentRowView last) {
+        return new ThreadCursor(postId, parentId, last.getId(), last.getPinned(), last.getScore(), last.getTimestamp());
+    }
+
+    boolean isBefore(CommentRowView row, boolean topLevel) {
+        if (topLevel) {
+            if (pinned != row.getPinned()) return pinned;
+            if (score != row.getScore()) return score > row.getScore();
+            int byTime = timestamp.compareTo(row.getTimestamp());
+            if (byTime != 0) return byTime > 0;
+            return afterId > row.getId();
+        }
+        int byTime = timestamp.compareTo(row.getTimestamp());
+        if (byTime != 0) return byTime < 0;
+        return afterId < row.getId();
+    }
+
+    String encode() {
+        return CursorCodec.encode(
+                postId,
+                parentId != null ? parentId : "",
+                afterId != null ? afterId : "",
+                pinned,
+                score,
+                timestamp != null ? timestamp : "");
+    }
+
+    static ThreadCursor decode(String cursor) {
+        String[] parts = CursorCodec.decode(cursor, 6);
+        try {
+            Long afterId = parts[2].isEmpty() ? null : Long.parseLong(parts[2]);
+            return new ThreadCursor(
+                    Long.parseLong(parts[0]),
+                    parts[1].isEmpty() ? null : Long.parseLong(parts[1]),
+                    afterId,
+                    Boolean.parseBoolean(parts[3]),
+                    Integer.parseInt(parts[4]),
+                    afterId == null ? null : LocalDateTime.parse(parts[5]));
+        } catch (java.time.format.DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
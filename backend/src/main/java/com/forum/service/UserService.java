@@ -4,11 +4,14 @@ import com.forum.dto.RegisterRequest;
 import com.forum.model.User;
 import com.forum.model.Role;
 import com.forum.model.university.UniversityCourse;
+import com.forum.model.university.UniversityStudent;
 import com.forum.repository.UserRepository;
+import com.forum.security.services.SecurityVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,6 +31,10 @@ public class UserService {
     private com.forum.repository.university.UniversityCourseRepository uniCourseRepo;
     @Autowired
     private ForumService forumService;
+    @Autowired
+    private ForumAccessCache forumAccessCache;
+    @Autowired
+    private SecurityVersions securityVersions;
 
     /**
      * Registers a new user and links to university data if available.
@@ -127,7 +134,10 @@ public class UserService {
         if (userId == null) throw new RuntimeException("User ID cannot be null");
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
         user.setVerified(true);
+        // The cached principal still says unverified; a new version drops it
+        user.setTokenVersion(user.getTokenVersion() + 1);
         User savedUser = userRepository.save(user);
+        securityVersions.evict(userId);
         emailService.sendVerificationEmail(savedUser.getEmail());
     }
     
@@ -146,45 +156,59 @@ public class UserService {
     }
 
     /**
-     * Syncs student data with university records.
+     * Syncs student data with university records and records when the sync ran.
      */
     @Transactional
     public void syncStudentData(String email) {
         User user = userRepository.findByEmail(email).orElse(null);
         if (user == null || user.getRole() != Role.STUDENT) return;
         
-        uniStudentRepo.findByEmail(email).ifPresent(uniStudent -> {
-            boolean changed = false;
-            if (user.getStudyYear() == null || !user.getStudyYear().equals(uniStudent.getYear())) {
-                user.setStudyYear(uniStudent.getYear());
-                changed = true;
-            }
-            if (user.getSemester() == null || !user.getSemester().equals(uniStudent.getSemester())) {
-                user.setSemester(uniStudent.getSemester());
-                changed = true;
-            }
-            if (user.getGroupName() == null || !user.getGroupName().equals(uniStudent.getGroupName())) {
-                user.setGroupName(uniStudent.getGroupName());
-                changed = true;
-                
-                // Update forums for new group
-                if (user.getCourses() != null) {
-                    // Force load
-                    user.getCourses().size(); 
-                    for (UniversityCourse course : user.getCourses()) {
-                        forumService.createGroupSubforumIfMissing(course, user.getGroupName());
-                    }
-                }
-            }
-            
-            if (!user.isVerified()) {
-                user.setVerified(true);
-                changed = true;
-            }
+        user.setRosterSyncedAt(LocalDateTime.now());
+        UniversityStudent uniStudent = uniStudentRepo.findByEmail(email).orElse(null);
+        if (uniStudent == null) {
+            userRepository.save(user);
+            return;
+        }
+
+        boolean changed = false;
+        if (user.getStudyYear() == null || !user.getStudyYear().equals(uniStudent.getYear())) {
+            user.setStudyYear(uniStudent.getYear());
+            changed = true;
+        }
+        if (user.getSemester() == null || !user.getSemester().equals(uniStudent.getSemester())) {
+            user.setSemester(uniStudent.getSemester());
+            changed = true;
+        }
+        if (user.getGroupName() == null || !user.getGroupName().equals(uniStudent.getGroupName())) {
+            user.setGroupName(uniStudent.getGroupName());
+            changed = true;
             
-            if (changed) {
-                userRepository.save(user);
+            // Update forums for new group
+            if (user.getCourses() != null) {
+                // Force load
+                user.getCourses().size(); 
+                for (UniversityCourse course : user.getCourses()) {
+                    forumService.createGroupSubforumIfMissing(course, user.getGroupName());
+                }
             }
-        });
+        }
+        
+        boolean verified = false;
+        if (!user.isVerified()) {
+            user.setVerified(true);
+            // The cached principal still says unverified; a new version drops it
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            verified = true;
+            changed = true;
+        }
+        
+        // Saved even when nothing changed, to record the sync time
+        userRepository.save(user);
+        if (changed) {
+            forumAccessCache.evict(user.getId());
+        }
+        if (verified) {
+            securityVersions.evict(user.getId());
+        }
     }
 }
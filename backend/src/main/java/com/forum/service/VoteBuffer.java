@@ -0,0 +1,382 @@
+package com.forum.service;
+
+import com.forum.dto.ForumDelta;
+import com.forum.dto.VoteResponse;
+import com.forum.event.PostChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Opt-in write-behind pipeline for votes ({@code forum.app.votes.writeBehind.enabled}).
+ * <p>
+ * Each request only records the voter's intended final vote in memory. A scheduled flush
+ * writes the vote rows and the resulting net score deltas in JDBC batches, deriving the
+ * deltas from the rows actually stored so scores always match the votes table. Until a
+ * vote is flushed, the voter reads it back from the buffer. On shutdown the buffer is
+ * flushed, and anything that cannot be written is spooled to a file and replayed on startup.
+ * <p>
+ * Every target whose score a flush moved gets a {@link PostChangedEvent} after commit, so
+ * cached responses and ETags built while the vote was buffered are invalidated.
+ */
+@Component
+public class VoteBuffer {
+    private static final Logger logger = LoggerFactory.getLogger(VoteBuffer.class);
+
+    public enum Target {
+        POST("posts", "post_id", PostChangedEvent.Change.VOTED,
+                "SELECT id, id AS post_id, forum_id, score FROM posts WHERE id IN (:ids)"),
+        COMMENT("comments", "comment_id", PostChangedEvent.Change.COMMENT_VOTED,
+                "SELECT c.id, c.post_id, p.forum_id, c.score FROM comments c JOIN posts p ON p.id = c.post_id " +
+                "WHERE c.id IN (:ids)");
+
+        private final String table;
+        private final String voteColumn;
+        private final PostChangedEvent.Change change;
+        // Reads each target's post, forum and stored score for the events sent after a flush
+        private final String locateSql;
+
+        Target(String table, String voteColumn, PostChangedEvent.Change change, String locateSql) {
+            this.table = table;
+            this.voteColumn = voteColumn;
+            this.change = change;
+            this.locateSql = locateSql;
+        }
+    }
+
+    private record VoteKey(Target target, long targetId, long userId) {
+    }
+
+    /**
+     * Stored vote when the key was first buffered and the latest intended vote (0 = none).
+     */
+    private record PendingVote(int baseline, int value) {
+    }
+
+    @Value("${forum.app.votes.writeBehind.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${forum.app.votes.writeBehind.spoolFile:vote-spool.log}")
+    private String spoolFile = "vote-spool.log";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<VoteKey, PendingVote> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<VoteKey, PendingVote> inFlight = new ConcurrentHashMap<>();
+
+    // Net score change not yet visible in the database, per target id.
+    // ConcurrentHashMap.merge locks only the key's bin, so unrelated targets never contend.
+    private final Map<Target, ConcurrentHashMap<Long, Long>> scoreDeltas = Map.of(
+            Target.POST, new ConcurrentHashMap<>(),
+            Target.COMMENT, new ConcurrentHashMap<>());
+
+    private final Object flushLock = new Object();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a vote intent: the same value again withdraws the vote, a different value replaces it.
+     * @param storedVote Reads the voter's stored vote (0 if none); only called when nothing is buffered.
+     * @param storedScore Reads the target's stored score.
+     */
+    public VoteResponse record(Target target, Long targetId, Long userId, int value,
+                               IntSupplier storedVote, IntSupplier storedScore) {
+        VoteKey key = new VoteKey(target, targetId, userId);
+        // Read outside the map lock; a buffered entry always wins over this value
+        int stored = pending.containsKey(key) || inFlight.containsKey(key) ? 0 : storedVote.getAsInt();
+
+        int[] change = new int[2];
+        pending.compute(key, (k, current) -> {
+            int baseline;
+            if (current != null) {
+                baseline = current.baseline();
+                change[0] = current.value();
+            } else {
+                PendingVote flushing = inFlight.get(k);
+                baseline = flushing != null ? flushing.value() : stored;
+                change[0] = baseline;
+            }
+            change[1] = change[0] == value ? 0 : value;
+            return new PendingVote(baseline, change[1]);
+        });
+
+        addScoreDelta(target, targetId, change[1] - change[0]);
+        return new VoteResponse(targetId, storedScore.getAsInt() + pendingScoreDelta(target, targetId), change[1]);
+    }
+
+    /**
+     * Score change buffered for a target but not yet flushed.
+     */
+    public int pendingScoreDelta(Target target, Long targetId) {
+        if (targetId == null) return 0;
+        Long delta = scoreDeltas.get(target).get(targetId);
+        return delta == null ? 0 : delta.intValue();
+    }
+
+    public int pendingCount() {
+        return pending.size() + inFlight.size();
+    }
+
+    @Scheduled(fixedDelayString = "${forum.app.votes.writeBehind.flushIntervalMs:500}")
+    public void scheduledFlush() {
+        if (!enabled) return;
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Vote flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every buffered vote in one transaction. On failure the votes are put back.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<VoteKey, PendingVote> batch = new HashMap<>();
+            for (VoteKey key : pending.keySet()) {
+                pending.computeIfPresent(key, (k, v) -> {
+                    inFlight.put(k, v);
+                    batch.put(k, v);
+                    return null;
+                });
+            }
+            if (batch.isEmpty()) return;
+
+            Map<Target, Set<Long>> changed = new HashMap<>();
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    changed.clear();
+                    for (Target target : Target.values()) {
+                        changed.put(target, write(target, batch));
+                    }
+                });
+            } catch (RuntimeException e) {
+                batch.forEach((k, v) -> {
+                    // A newer intent keeps its value but inherits the original baseline
+                    pending.merge(k, v, (newer, old) -> new PendingVote(old.baseline(), newer.value()));
+                    inFlight.remove(k, v);
+                });
+                throw e;
+            }
+
+            batch.forEach((k, v) -> {
+                inFlight.remove(k, v);
+                addScoreDelta(k.target(), k.targetId(), -(v.value() - v.baseline()));
+            });
+            logger.debug("Flushed {} buffered votes", batch.size());
+            changed.forEach(this::publishFlushed);
+        }
+    }
+
+    /**
+     * Publishes a score change for every flushed target. Runs after the pending deltas were
+     * removed, so the published score is the stored one plus what is still buffered.
+     */
+    private void publishFlushed(Target target, Set<Long> targetIds) {
+        if (targetIds.isEmpty()) return;
+        try {
+            jdbcTemplate.query(target.locateSql, new MapSqlParameterSource("ids", targetIds), rs -> {
+                long id = rs.getLong("id");
+                ForumDelta delta = new ForumDelta();
+                delta.setType(target.change.name());
+                delta.setForumId(rs.getLong("forum_id"));
+                delta.setPostId(rs.getLong("post_id"));
+                delta.setCommentId(target == Target.COMMENT ? id : null);
+                delta.setScore(rs.getInt("score") + pendingScoreDelta(target, id));
+                eventPublisher.publishEvent(new PostChangedEvent(delta.getPostId(), delta.getForumId(), target.change, delta));
+            });
+        } catch (RuntimeException e) {
+            // The votes are stored; stale caches only last until the next change of the post
+            logger.warn("Could not publish flushed {} votes: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the buffered votes of one target type and returns the ids whose score changed.
+     */
+    private Set<Long> write(Target target, Map<VoteKey, PendingVote> batch) {
+        Map<VoteKey, PendingVote> votes = new HashMap<>();
+        Set<Long> targetIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        batch.forEach((k, v) -> {
+            if (k.target() == target) {
+                votes.put(k, v);
+                targetIds.add(k.targetId());
+                userIds.add(k.userId());
+            }
+        });
+        if (votes.isEmpty()) return Set.of();
+
+        // Votes on targets deleted in the meantime are dropped
+        Set<Long> existingTargets = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + target.table + " WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", targetIds), Long.class));
+
+        Map<VoteKey, long[]> storedRows = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, user_id, " + target.voteColumn + " AS target_id, value FROM votes " +
+                "WHERE " + target.voteColumn + " IN (:targets) AND user_id IN (:users)",
+                new MapSqlParameterSource().addValue("targets", targetIds).addValue("users", userIds),
+                rs -> {
+                    VoteKey key = new VoteKey(target, rs.getLong("target_id"), rs.getLong("user_id"));
+                    storedRows.put(key, new long[] {rs.getLong("id"), rs.getInt("value")});
+                });
+
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<SqlParameterSource> deletes = new ArrayList<>();
+        Map<Long, Integer> deltas = new HashMap<>();
+
+        votes.forEach((k, v) -> {
+            if (!existingTargets.contains(k.targetId())) return;
+            long[] row = storedRows.get(k);
+            int old = row == null ? 0 : (int) row[1];
+            if (old == v.value()) return;
+
+            if (row == null) {
+                inserts.add(new MapSqlParameterSource()
+                        .addValue("userId", k.userId())
+                        .addValue("targetId", k.targetId())
+                        .addValue("value", v.value()));
+            } else if (v.value() == 0) {
+                deletes.add(new MapSqlParameterSource("id", row[0]));
+            } else {
+                updates.add(new MapSqlParameterSource().addValue("id", row[0]).addValue("value", v.value()));
+            }
+            deltas.merge(k.targetId(), v.value() - old, Integer::sum);
+        });
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO votes (user_id, " + target.voteColumn + ", value) " +
+                    "VALUES (:userId, :targetId, :value)", inserts.toArray(new SqlParameterSource[0]));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE votes SET value = :value WHERE id = :id",
+                    updates.toArray(new SqlParameterSource[0]));
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM votes WHERE id = :id", deletes.toArray(new SqlParameterSource[0]));
+        }
+
+        List<SqlParameterSource> scoreUpdates = new ArrayList<>();
+        Set<Long> changed = new HashSet<>();
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                changed.add(id);
+                scoreUpdates.add(new MapSqlParameterSource().addValue("id", id).addValue("delta", delta));
+            }
+        });
+        if (!scoreUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE " + target.table + " SET score = score + :delta WHERE id = :id",
+                    scoreUpdates.toArray(new SqlParameterSource[0]));
+        }
+        return changed;
+    }
+
+    private void addScoreDelta(Target target, Long targetId, int delta) {
+        if (delta == 0) return;
+        // Returning null from the remapping function drops entries that net out to zero
+        scoreDeltas.get(target).merge(targetId, (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Flushes on shutdown; whatever cannot be written is spooled to disk for the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pendingCount() == 0) return;
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Final vote flush failed, spooling {} votes to {}", pendingCount(), spoolFile);
+        }
+        if (pendingCount() > 0) {
+            spool();
+        }
+    }
+
+    private void spool() {
+        Map<VoteKey, PendingVote> remaining = new HashMap<>(inFlight);
+        remaining.putAll(pending);
+        Path path = Paths.get(spoolFile);
+        Path tmp = Paths.get(spoolFile + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<VoteKey, PendingVote> e : remaining.entrySet()) {
+                VoteKey k = e.getKey();
+                out.write(k.target() + "," + k.targetId() + "," + k.userId() + ","
+                        + e.getValue().baseline() + "," + e.getValue().value());
+                out.newLine();
+            }
+        } catch (IOException e) {
+            logger.error("Could not spool votes: {}", e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Could not spool votes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replays votes spooled by a previous shutdown, whether or not write-behind is still enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Path path = Paths.get(spoolFile);
+        if (!Files.exists(path)) return;
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                String[] parts = line.split(",");
+                VoteKey key = new VoteKey(Target.valueOf(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                PendingVote vote = new PendingVote(Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+                if (pending.putIfAbsent(key, vote) == null) {
+                    addScoreDelta(key.target(), key.targetId(), vote.value() - vote.baseline());
+                }
+            }
+            flush();
+            Files.delete(path);
+            logger.info("Replayed spooled votes from {}", spoolFile);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not replay spooled votes from {}: {}", spoolFile, e.getMessage());
+        }
+    }
+}
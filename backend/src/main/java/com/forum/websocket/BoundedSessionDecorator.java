@@ -0,0 +1,137 @@
+package com.forum.websocket;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes sends to one WebSocket session and bounds what may pile up behind a slow client.
+ * <p>
+ * Works like {@link ConcurrentWebSocketSessionDecorator}: one thread writes while others queue
+ * their messages and return. A write that takes longer than the send time limit closes the session.
+ * When the queue grows past the buffer size limit, the oldest messages are dropped or the session
+ * is closed, depending on the {@link OutboundSessionPolicy.Overflow} setting. Sends, drops and
+ * disconnects are reported to the policy.
+ */
+public class BoundedSessionDecorator extends WebSocketSessionDecorator {
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final OutboundSessionPolicy.Overflow overflow;
+    private final OutboundSessionPolicy policy;
+
+    private final Queue<WebSocketMessage<?>> buffer = new LinkedBlockingQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private volatile long sendStartTime;
+    private volatile boolean limitExceeded;
+
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock limitLock = new ReentrantLock();
+
+    public BoundedSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                   OutboundSessionPolicy.Overflow overflow, OutboundSessionPolicy policy) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.overflow = overflow;
+        this.policy = policy;
+    }
+
+    /**
+     * Bytes queued for this session and not yet written.
+     */
+    public int getBufferSize() {
+        return bufferSize.get();
+    }
+
+    @Override
+    public void sendMessage(@NonNull WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded) {
+            policy.recordDropped(1);
+            return;
+        }
+        buffer.add(message);
+        bufferSize.addAndGet(message.getPayloadLength());
+
+        do {
+            if (!tryFlush()) {
+                checkLimits();
+                break;
+            }
+        } while (!buffer.isEmpty() && !limitExceeded);
+    }
+
+    private boolean tryFlush() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            WebSocketMessage<?> message;
+            while (!limitExceeded && (message = buffer.poll()) != null) {
+                bufferSize.addAndGet(-message.getPayloadLength());
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(message);
+                sendStartTime = 0;
+                policy.recordSent();
+            }
+        } finally {
+            sendStartTime = 0;
+            flushLock.unlock();
+        }
+        return true;
+    }
+
+    private void checkLimits() {
+        if (limitExceeded || !limitLock.tryLock()) {
+            return;
+        }
+        try {
+            long started = sendStartTime;
+            if (started > 0 && System.currentTimeMillis() - started > sendTimeLimit) {
+                disconnect("Send time " + (System.currentTimeMillis() - started) + " (ms) exceeded the limit of " + sendTimeLimit);
+            }
+            if (bufferSize.get() > bufferSizeLimit) {
+                if (overflow == OutboundSessionPolicy.Overflow.DISCONNECT) {
+                    disconnect("Buffer size " + bufferSize.get() + " bytes exceeded the limit of " + bufferSizeLimit);
+                }
+                int dropped = 0;
+                WebSocketMessage<?> message;
+                while (bufferSize.get() > bufferSizeLimit && (message = buffer.poll()) != null) {
+                    bufferSize.addAndGet(-message.getPayloadLength());
+                    dropped++;
+                }
+                policy.recordDropped(dropped);
+            }
+        } finally {
+            limitLock.unlock();
+        }
+    }
+
+    private void disconnect(String reason) {
+        limitExceeded = true;
+        int pending = buffer.size();
+        buffer.clear();
+        bufferSize.set(0);
+        policy.recordDropped(pending);
+        policy.recordDisconnect();
+        // SubProtocolWebSocketHandler closes the session when it sees this exception
+        throw new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Override
+    public void close(@NonNull CloseStatus status) throws IOException {
+        limitExceeded = true;
+        super.close(status);
+    }
+}
@@ -0,0 +1,117 @@
+package com.forum.websocket;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscription registry for the simple broker that indexes exact destinations in a hash map.
+ * <p>
+ * {@link DefaultSubscriptionRegistry} resolves a destination by matching it against every
+ * subscription and caches only a bounded number of results. With one queue per session,
+ * as user destinations produce, most lookups miss that cache and cost O(all subscriptions).
+ * Here a send to an exact destination costs O(subscribers of that destination). Pattern
+ * subscriptions are still handed to a {@link DefaultSubscriptionRegistry}. Selector headers
+ * are not supported for exact destinations.
+ */
+public class IndexedSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final DefaultSubscriptionRegistry patterns = new DefaultSubscriptionRegistry();
+    private final AtomicInteger patternCount = new AtomicInteger();
+
+    // destination -> session id -> subscription ids
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Set<String>>> byDestination = new ConcurrentHashMap<>();
+    // session id -> subscription id -> destination
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> bySession = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSubscriptionInternal(@NonNull String sessionId, @NonNull String subscriptionId,
+                                           @NonNull String destination, @NonNull Message<?> message) {
+        if (bySession.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>()).putIfAbsent(subscriptionId, destination) != null) {
+            return;
+        }
+        if (pathMatcher.isPattern(destination)) {
+            patterns.registerSubscription(message);
+            patternCount.incrementAndGet();
+            return;
+        }
+        byDestination.compute(destination, (d, sessions) -> {
+            if (sessions == null) {
+                sessions = new ConcurrentHashMap<>();
+            }
+            sessions.computeIfAbsent(sessionId, k -> ConcurrentHashMap.newKeySet()).add(subscriptionId);
+            return sessions;
+        });
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(@NonNull String sessionId, @NonNull String subscriptionId,
+                                              @NonNull Message<?> message) {
+        Map<String, String> subscriptions = bySession.get(sessionId);
+        String destination = subscriptions != null ? subscriptions.remove(subscriptionId) : null;
+        if (destination == null) return;
+        if (pathMatcher.isPattern(destination)) {
+            patterns.unregisterSubscription(message);
+            patternCount.decrementAndGet();
+        } else {
+            removeFromDestination(destination, sessionId, subscriptionId);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(@NonNull String sessionId) {
+        Map<String, String> subscriptions = bySession.remove(sessionId);
+        if (subscriptions == null) return;
+        subscriptions.forEach((subscriptionId, destination) -> {
+            if (pathMatcher.isPattern(destination)) {
+                patternCount.decrementAndGet();
+            } else {
+                removeFromDestination(destination, sessionId, subscriptionId);
+            }
+        });
+        patterns.unregisterAllSubscriptions(sessionId);
+    }
+
+    @Override
+    @NonNull
+    protected MultiValueMap<String, String> findSubscriptionsInternal(@NonNull String destination, @NonNull Message<?> message) {
+        LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+        Map<String, Set<String>> sessions = byDestination.get(destination);
+        if (sessions != null) {
+            sessions.forEach((sessionId, ids) -> result.put(sessionId, new ArrayList<>(ids)));
+        }
+        if (patternCount.get() > 0) {
+            patterns.findSubscriptions(message).forEach((sessionId, ids) -> ids.forEach(id -> result.add(sessionId, id)));
+        }
+        return result;
+    }
+
+    /**
+     * Number of exact destinations with at least one subscriber.
+     */
+    public int destinationCount() {
+        return byDestination.size();
+    }
+
+    private void removeFromDestination(String destination, String sessionId, String subscriptionId) {
+        byDestination.computeIfPresent(destination, (d, sessions) -> {
+            sessions.computeIfPresent(sessionId, (s, ids) -> {
+                ids.remove(subscriptionId);
+                return ids.isEmpty() ? null : ids;
+            });
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
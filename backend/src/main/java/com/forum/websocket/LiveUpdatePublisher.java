@@ -0,0 +1,223 @@
+package com.forum.websocket;
+
+import com.forum.dto.ForumDelta;
+import com.forum.event.PostChangedEvent;
+import com.forum.service.ScoreReader;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes committed post changes to live subscribers as compact {@link ForumDelta}s.
+ * <p>
+ * Every change goes to {@code /topic/posts/{postId}}. Post-level changes, plus comment
+ * additions and deletions without the comment body, also go to {@code /topic/forums/{forumId}}.
+ * <p>
+ * Each topic gets at most one frame per {@code minIntervalMs}; a frame is a JSON array of deltas.
+ * Deltas that arrive in between are buffered. Score changes and edits of the same post or
+ * comment replace each other in the buffer, so a hot thread sends only its latest score.
+ * <p>
+ * Concurrent votes can commit in one order and reach this listener in another, so the score
+ * a publisher read inside its transaction may already be stale. Score deltas are therefore
+ * re-read after commit and enqueued under a lock per target: whichever listener enqueues
+ * last has read last, and the buffered score never goes backwards.
+ */
+@Component
+public class LiveUpdatePublisher implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdatePublisher.class);
+
+    private static final long SWEEP_INTERVAL_MS = 60000;
+
+    private static final int SCORE_LOCK_STRIPES = 64;
+
+    private record CoalesceKey(String type, Long id) {
+    }
+
+    private static final class TopicBuffer {
+        private final LinkedHashMap<Object, ForumDelta> pending = new LinkedHashMap<>();
+        private long lastSentAt = Long.MIN_VALUE / 2;
+        private boolean scheduled;
+        private boolean retired;
+    }
+
+    @Value("${forum.app.live.minIntervalMs:250}")
+    private long minIntervalMs = 250;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ScoreReader scoreReader;
+
+    private final Map<String, TopicBuffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object[] scoreLocks = new Object[SCORE_LOCK_STRIPES];
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+
+    {
+        for (int i = 0; i < scoreLocks.length; i++) {
+            scoreLocks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        ForumDelta delta = event.delta();
+        if (delta == null || event.postId() == null) return;
+
+        Object key = coalesceKey(delta);
+        if (delta.getScore() == null || !(key instanceof CoalesceKey)) {
+            publish(event, key, delta);
+            return;
+        }
+        synchronized (scoreLocks[Math.floorMod(key.hashCode(), scoreLocks.length)]) {
+            scoreReader.currentScore(delta).ifPresent(delta::setScore);
+            publish(event, key, delta);
+        }
+    }
+
+    private void publish(PostChangedEvent event, Object key, ForumDelta delta) {
+        enqueue("/topic/posts/" + event.postId(), key, delta);
+
+        ForumDelta forumDelta = forumView(delta);
+        if (forumDelta != null && event.forumId() != null) {
+            enqueue("/topic/forums/" + event.forumId(), coalesceKey(forumDelta), forumDelta);
+        }
+    }
+
+    public int bufferedTopics() {
+        return buffers.size();
+    }
+
+    private void enqueue(String topic, Object key, ForumDelta delta) {
+        published.increment();
+        while (true) {
+            TopicBuffer buffer = buffers.computeIfAbsent(topic, t -> new TopicBuffer());
+            long wait;
+            synchronized (buffer) {
+                if (buffer.retired) continue;
+                // Re-inserting moves the key to the end, so a replaced delta keeps its real order
+                if (buffer.pending.remove(key) != null) {
+                    coalesced.increment();
+                }
+                buffer.pending.put(key, delta);
+                if (buffer.scheduled) return;
+                wait = buffer.lastSentAt + minIntervalMs - System.currentTimeMillis();
+                if (wait > 0) {
+                    buffer.scheduled = true;
+                    scheduler.schedule(() -> flush(topic, buffer), wait, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            flush(topic, buffer);
+            return;
+        }
+    }
+
+    private void flush(String topic, TopicBuffer buffer) {
+        List<ForumDelta> frame;
+        synchronized (buffer) {
+            buffer.scheduled = false;
+            if (buffer.pending.isEmpty()) return;
+            frame = new ArrayList<>(buffer.pending.values());
+            buffer.pending.clear();
+            buffer.lastSentAt = System.currentTimeMillis();
+        }
+        try {
+            messagingTemplate.convertAndSend(topic, frame);
+            frames.increment();
+        } catch (RuntimeException e) {
+            logger.warn("Could not push live update to {}: {}", topic, e.getMessage());
+        }
+    }
+
+    /**
+     * Drops buffers of topics that have been quiet for longer than the rate limit.
+     */
+    void sweep() {
+        long now = System.currentTimeMillis();
+        buffers.forEach((topic, buffer) -> {
+            synchronized (buffer) {
+                if (!buffer.scheduled && buffer.pending.isEmpty() && now - buffer.lastSentAt >= minIntervalMs) {
+                    buffer.retired = true;
+                    buffers.remove(topic, buffer);
+                }
+            }
+        });
+    }
+
+    private Object coalesceKey(ForumDelta delta) {
+        return switch (delta.getType()) {
+            case "VOTED", "EDITED" -> new CoalesceKey(delta.getType(), delta.getPostId());
+            case "COMMENT_VOTED", "COMMENT_EDITED" -> new CoalesceKey(delta.getType(), delta.getCommentId());
+            default -> sequence.incrementAndGet();
+        };
+    }
+
+    /**
+     * The part of a delta that forum listings care about, or {@code null} if they don't.
+     */
+    static ForumDelta forumView(ForumDelta delta) {
+        return switch (delta.getType()) {
+            case "CREATED", "EDITED", "DELETED", "VOTED" -> delta;
+            case "COMMENT_ADDED", "COMMENT_DELETED" -> {
+                ForumDelta view = new ForumDelta();
+                view.setType(delta.getType());
+                view.setForumId(delta.getForumId());
+                view.setPostId(delta.getPostId());
+                view.setCommentId(delta.getCommentId());
+                yield view;
+            }
+            default -> null;
+        };
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("forum.live.topics.buffered", this, LiveUpdatePublisher::bufferedTopics).register(registry);
+        FunctionCounter.builder("forum.live.deltas.published", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.live.deltas.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.live.frames.sent", frames, LongAdder::sum).register(registry);
+    }
+}
@@ -0,0 +1,119 @@
+package com.forum.websocket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbound limits for WebSocket sessions and the metrics that show how close clients get to them.
+ * <p>
+ * Every session's sends go through a {@link BoundedSessionDecorator} with these limits. The
+ * message rate is exported as a counter, so per-second rates come from the metrics backend.
+ */
+@Component
+public class OutboundSessionPolicy implements MeterBinder {
+
+    /**
+     * What to do when a session's send buffer is full.
+     */
+    public enum Overflow {
+        DROP_OLDEST,
+        DISCONNECT
+    }
+
+    @Value("${forum.app.websocket.sendTimeLimitMs:10000}")
+    private int sendTimeLimitMs = 10000;
+
+    @Value("${forum.app.websocket.sendBufferSizeLimit:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    @Value("${forum.app.websocket.messageSizeLimit:65536}")
+    private int messageSizeLimit = 64 * 1024;
+
+    @Value("${forum.app.websocket.overflow:DISCONNECT}")
+    private Overflow overflow = Overflow.DISCONNECT;
+
+    private final Map<String, BoundedSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public int getSendTimeLimitMs() {
+        return sendTimeLimitMs;
+    }
+
+    public int getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public int getMessageSizeLimit() {
+        return messageSizeLimit;
+    }
+
+    /**
+     * Wraps a newly connected session and starts tracking it.
+     */
+    public WebSocketSession decorate(WebSocketSession session) {
+        BoundedSessionDecorator decorated = new BoundedSessionDecorator(session, sendTimeLimitMs, sendBufferSizeLimit, overflow, this);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    public void release(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    public long bufferedBytes() {
+        long total = 0;
+        for (BoundedSessionDecorator session : sessions.values()) {
+            total += session.getBufferSize();
+        }
+        return total;
+    }
+
+    public long maxBufferedBytes() {
+        long max = 0;
+        for (BoundedSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getBufferSize());
+        }
+        return max;
+    }
+
+    void recordSent() {
+        sent.increment();
+    }
+
+    void recordDropped(int frames) {
+        if (frames > 0) {
+            dropped.add(frames);
+        }
+    }
+
+    void recordDisconnect() {
+        disconnected.increment();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("forum.websocket.sessions.active", this, OutboundSessionPolicy::activeSessions).register(registry);
+        Gauge.builder("forum.websocket.buffer.bytes", this, OutboundSessionPolicy::bufferedBytes).register(registry);
+        Gauge.builder("forum.websocket.buffer.bytes.max", this, OutboundSessionPolicy::maxBufferedBytes).register(registry);
+        FunctionCounter.builder("forum.websocket.messages.sent", sent, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.websocket.frames.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("forum.websocket.sessions.disconnected", disconnected, LongAdder::sum).register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.forum.websocket;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP WebSocket handler that sends through {@link OutboundSessionPolicy} limits instead of
+ * the framework's fixed disconnect-on-overflow decorator.
+ */
+public class PolicySubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final OutboundSessionPolicy policy;
+
+    public PolicySubProtocolWebSocketHandler(MessageChannel clientInboundChannel, SubscribableChannel clientOutboundChannel,
+                                             OutboundSessionPolicy policy) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.policy = policy;
+    }
+
+    @Override
+    @NonNull
+    protected WebSocketSession decorateSession(@NonNull WebSocketSession session) {
+        return policy.decorate(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus closeStatus) throws Exception {
+        try {
+            super.afterConnectionClosed(session, closeStatus);
+        } finally {
+            policy.release(session.getId());
+        }
+    }
+}
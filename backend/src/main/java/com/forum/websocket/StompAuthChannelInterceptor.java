@@ -0,0 +1,92 @@
+package com.forum.websocket;
+
+import com.forum.security.jwt.JwtUtils;
+import com.forum.security.services.RevocationList;
+import com.forum.security.services.SecurityVersions;
+import com.forum.security.services.UserDetailsImpl;
+import com.forum.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Authenticates STOMP sessions with the JWT sent in the CONNECT frame's Authorization header.
+ * Subscriptions are limited to exact {@code /topic/...} destinations and the client's own
+ * {@code /user/queue/...} destinations. Raw per-session queues and wildcard patterns are
+ * rejected, since the broker would match them against every user's queue.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private SecurityVersions securityVersions;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+                throw new MessagingException("Missing bearer token");
+            }
+            Claims claims = jwtUtils.parseClaims(header.substring(7));
+            if (claims == null || revocationList.isRevoked(claims.getId())) {
+                throw new MessagingException("Invalid token");
+            }
+            UserDetailsImpl user = resolvePrincipal(claims);
+            if (user == null) {
+                throw new MessagingException("Invalid token");
+            }
+            accessor.setUser(new StompPrincipal(user.getId()));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            if (!isAllowedSubscription(accessor.getDestination())) {
+                throw new MessagingException("Subscribe to /topic/... or /user/queue/... only");
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Same rules as the HTTP filter: compact claims must carry the current token version,
+     * and only tokens issued without them fall back to a user lookup.
+     */
+    private UserDetailsImpl resolvePrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipal(claims);
+        if (principal == null) {
+            return (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        return securityVersions.isCurrent(principal.getId(), principal.getTokenVersion()) ? principal : null;
+    }
+
+    private boolean isAllowedSubscription(String destination) {
+        if (destination == null || pathMatcher.isPattern(destination)) {
+            return false;
+        }
+        return destination.startsWith("/topic/") || destination.startsWith("/user/queue/");
+    }
+}
@@ -0,0 +1,14 @@
+package com.forum.websocket;
+
+import java.security.Principal;
+
+/**
+ * Principal of an authenticated STOMP session. Its name is the user id, so
+ * user destinations can be addressed by id: {@code convertAndSendToUser(userId, ...)}.
+ */
+public record StompPrincipal(Long userId) implements Principal {
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
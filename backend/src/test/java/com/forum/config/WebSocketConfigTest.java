@@ -0,0 +1,44 @@
+package com.forum.config;
+
+import com.forum.websocket.OutboundSessionPolicy;
+import com.forum.websocket.PolicySubProtocolWebSocketHandler;
+import com.forum.websocket.StompAuthChannelInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitWebConfig(classes = {WebSocketConfig.class, WebSocketConfigTest.Beans.class})
+class WebSocketConfigTest {
+
+    @Configuration
+    static class Beans {
+        @Bean
+        OutboundSessionPolicy outboundSessionPolicy() {
+            return new OutboundSessionPolicy();
+        }
+    }
+
+    @MockBean
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private WebSocketHandler subProtocolWebSocketHandler;
+
+    @Test
+    void testStompHandler_ShouldBeReplacedByPolicyHandlerWithStompAttached() {
+        assertInstanceOf(PolicySubProtocolWebSocketHandler.class, subProtocolWebSocketHandler);
+        SubProtocolWebSocketHandler handler = (SubProtocolWebSocketHandler) subProtocolWebSocketHandler;
+        assertEquals(1, handler.getProtocolHandlers().size());
+        assertInstanceOf(StompSubProtocolHandler.class, handler.getProtocolHandlers().get(0));
+        assertTrue(handler.getSubProtocols().contains("v12.stomp"));
+        assertTrue(handler.isRunning());
+    }
+}
@@ -0,0 +1,38 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorPageTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        CursorPage<String> page = new CursorPage<>();
+        assertNotNull(page);
+        assertNull(page.getItems());
+        assertNull(page.getNextCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testAllArgsConstructor() {
+        List<String> items = List.of("a", "b");
+        CursorPage<String> page = new CursorPage<>(items, "next", true);
+
+        assertEquals(items, page.getItems());
+        assertEquals("next", page.getNextCursor());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        CursorPage<String> page = new CursorPage<>();
+        page.setNextCursor("abc");
+        page.setHasMore(true);
+
+        assertEquals("abc", page.getNextCursor());
+        assertTrue(page.isHasMore());
+    }
+}
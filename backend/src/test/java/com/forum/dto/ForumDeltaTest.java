@@ -0,0 +1,50 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForumDeltaTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        ForumDelta delta = new ForumDelta();
+        assertNotNull(delta);
+        assertNull(delta.getType());
+        assertNull(delta.getPostId());
+        assertNull(delta.getScore());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        LocalDateTime now = LocalDateTime.now();
+        ForumDelta delta = new ForumDelta();
+        delta.setType("COMMENT_EDITED");
+        delta.setForumId(1L);
+        delta.setPostId(2L);
+        delta.setCommentId(3L);
+        delta.setParentId(4L);
+        delta.setScore(5);
+        delta.setContent("Edited");
+        delta.setEditedAt(now);
+
+        assertEquals("COMMENT_EDITED", delta.getType());
+        assertEquals(1L, delta.getForumId());
+        assertEquals(2L, delta.getPostId());
+        assertEquals(3L, delta.getCommentId());
+        assertEquals(4L, delta.getParentId());
+        assertEquals(5, delta.getScore());
+        assertEquals("Edited", delta.getContent());
+        assertEquals(now, delta.getEditedAt());
+    }
+
+    @Test
+    void testToString() {
+        ForumDelta delta = new ForumDelta();
+        delta.setType("VOTED");
+
+        assertTrue(delta.toString().contains("VOTED"));
+    }
+}
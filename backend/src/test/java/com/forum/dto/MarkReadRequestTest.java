@@ -0,0 +1,43 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkReadRequestTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        MarkReadRequest request = new MarkReadRequest();
+        assertNotNull(request);
+        assertNull(request.getIds());
+        assertNull(request.getUpToTimestamp());
+        assertNull(request.getUpToId());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        LocalDateTime now = LocalDateTime.now();
+        MarkReadRequest request = new MarkReadRequest();
+        request.setIds(List.of(1L, 2L));
+        request.setUpToTimestamp(now);
+        request.setUpToId(5L);
+        request.setAnnouncementUpToId(8L);
+
+        assertEquals(List.of(1L, 2L), request.getIds());
+        assertEquals(now, request.getUpToTimestamp());
+        assertEquals(5L, request.getUpToId());
+        assertEquals(8L, request.getAnnouncementUpToId());
+    }
+
+    @Test
+    void testToString() {
+        MarkReadRequest request = new MarkReadRequest();
+        request.setUpToId(42L);
+
+        assertTrue(request.toString().contains("42"));
+    }
+}
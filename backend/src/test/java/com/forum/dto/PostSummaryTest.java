@@ -0,0 +1,45 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostSummaryTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        PostSummary summary = new PostSummary();
+        assertNotNull(summary);
+        assertNull(summary.getId());
+        assertEquals(0, summary.getCommentCount());
+    }
+
+    @Test
+    void testAllArgsConstructor() {
+        AuthorDto author = new AuthorDto();
+        author.setId(2L);
+        LocalDateTime now = LocalDateTime.now();
+
+        PostSummary summary = new PostSummary(200L, "Title", "Excerpt", author, 20, true, 5L, now);
+
+        assertEquals(200L, summary.getId());
+        assertEquals("Title", summary.getTitle());
+        assertEquals("Excerpt", summary.getExcerpt());
+        assertEquals(author, summary.getAuthor());
+        assertEquals(20, summary.getScore());
+        assertTrue(summary.isPinned());
+        assertEquals(5L, summary.getCommentCount());
+        assertEquals(now, summary.getLastActivity());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        PostSummary summary = new PostSummary();
+        summary.setTitle("Updated Title");
+        summary.setPinned(false);
+
+        assertEquals("Updated Title", summary.getTitle());
+        assertFalse(summary.isPinned());
+    }
+}
@@ -0,0 +1,34 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshRequestTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        RefreshRequest request = new RefreshRequest();
+        assertNotNull(request);
+        assertNull(request.getRefreshToken());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        RefreshRequest request = new RefreshRequest();
+        request.setRefreshToken("opaque-token");
+
+        assertEquals("opaque-token", request.getRefreshToken());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        RefreshRequest r1 = new RefreshRequest();
+        r1.setRefreshToken("a");
+
+        RefreshRequest r2 = new RefreshRequest();
+        r2.setRefreshToken("a");
+
+        assertEquals(r1, r2);
+        assertEquals(r1.hashCode(), r2.hashCode());
+    }
+}
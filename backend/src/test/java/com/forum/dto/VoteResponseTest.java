@@ -0,0 +1,36 @@
+package com.forum.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteResponseTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        VoteResponse response = new VoteResponse();
+        assertNotNull(response);
+        assertNull(response.getTargetId());
+        assertEquals(0, response.getScore());
+        assertEquals(0, response.getUserVote());
+    }
+
+    @Test
+    void testAllArgsConstructor() {
+        VoteResponse response = new VoteResponse(30L, 12, -1);
+
+        assertEquals(30L, response.getTargetId());
+        assertEquals(12, response.getScore());
+        assertEquals(-1, response.getUserVote());
+    }
+
+    @Test
+    void testSettersAndGetters() {
+        VoteResponse response = new VoteResponse();
+        response.setScore(4);
+        response.setUserVote(1);
+
+        assertEquals(4, response.getScore());
+        assertEquals(1, response.getUserVote());
+    }
+}
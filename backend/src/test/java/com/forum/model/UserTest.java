@@ -19,7 +19,7 @@ public class UserTest {
     @Test
     void testAllArgsConstructor() {
         List<UniversityCourse> courses = new ArrayList<>();
-        User user = new User(1L, "John", "Doe", "john@example.com", "password", Role.STUDENT, "johndoe", true, "GroupA", 2, 1, courses);
+        User user = new User(1L, "John", "Doe", "john@example.com", "password", Role.STUDENT, "johndoe", true, "GroupA", 2, 1, null, 3, courses);
         
         assertEquals(1L, user.getId());
         assertEquals("John", user.getFirstName());
@@ -28,6 +28,7 @@ public class UserTest {
         assertEquals("password", user.getPassword());
         assertEquals(Role.STUDENT, user.getRole());
         assertEquals("johndoe", user.getNickname());
+        assertEquals(3, user.getTokenVersion());
         assertTrue(user.isVerified());
         assertEquals("GroupA", user.getGroupName());
         assertEquals(2, user.getStudyYear());
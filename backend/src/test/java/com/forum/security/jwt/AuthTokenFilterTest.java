@@ -0,0 +1,180 @@
+package com.forum.security.jwt;
+
+import com.forum.security.services.RevocationList;
+import com.forum.security.services.SecurityVersions;
+import com.forum.security.services.UserDetailsImpl;
+import com.forum.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenFilterTest {
+
+    private static final String SECRET = "SecretKeyMustBeLongEnoughToServeAsASecureKeyForHMACSHA256Algorithm";
+
+    private final JwtUtils jwtUtils = new JwtUtils();
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private SecurityVersions securityVersions;
+
+    @Mock
+    private RevocationList revocationList;
+
+    @InjectMocks
+    private AuthTokenFilter filter;
+
+    private final FilterChain chain = mock(FilterChain.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        jwtUtils.init();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String token(int tokenVersion) {
+        UserDetailsImpl user = new UserDetailsImpl(7L, "student@univ.edu", "hash", true, tokenVersion,
+                List.of(new SimpleGrantedAuthority("STUDENT")));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static String legacyToken(String subject) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.builder().setSubject(subject).setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(key, SignatureAlgorithm.HS256).compact();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    void testFilter_TokenWithClaims_ShouldAuthenticateWithoutUserLookup() throws Exception {
+        when(securityVersions.isCurrent(7L, 2)).thenReturn(true);
+
+        filter.doFilter(request(token(2)), new MockHttpServletResponse(), chain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals("student@univ.edu", auth.getName());
+        assertEquals(7L, ((UserDetailsImpl) auth.getPrincipal()).getId());
+        assertEquals("STUDENT", auth.getAuthorities().iterator().next().getAuthority());
+        verifyNoInteractions(userDetailsService);
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void testFilter_StaleTokenVersion_ShouldNotAuthenticate() throws Exception {
+        when(securityVersions.isCurrent(7L, 1)).thenReturn(false);
+
+        filter.doFilter(request(token(1)), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void testFilter_RevokedToken_ShouldNotAuthenticate() throws Exception {
+        String token = token(2);
+        when(revocationList.isRevoked(jwtUtils.parseClaims(token).getId())).thenReturn(true);
+        when(securityVersions.isCurrent(7L, 2)).thenReturn(true);
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void testFilter_LegacyToken_ShouldFallBackToUserLookup() throws Exception {
+        UserDetailsImpl user = new UserDetailsImpl(7L, "student@univ.edu", "hash", true,
+                List.of(new SimpleGrantedAuthority("STUDENT")));
+        when(userDetailsService.loadUserByUsername("student@univ.edu")).thenReturn(user);
+
+        filter.doFilter(request(legacyToken("student@univ.edu")), new MockHttpServletResponse(), chain);
+
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verifyNoInteractions(securityVersions);
+    }
+
+    @Test
+    void testFilter_TamperedToken_ShouldNotAuthenticate() throws Exception {
+        String token = token(0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        filter.doFilter(request(tampered), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService, securityVersions);
+    }
+
+    /**
+     * Token handling cost per request: the previous path (key rebuilt per call, token parsed
+     * twice) against the single parse with a cached key. The user lookup the previous path also
+     * made is left out, so the real gap is larger by one database round trip.
+     * Run with {@code mvn test -Dtest=AuthTokenFilterTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTokenVerification() {
+        String token = token(0);
+        int iterations = 50_000;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int i = 0; i < iterations; i++) {
+                Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+                Jwts.parserBuilder().setSigningKey(key).build().parse(token);
+                Key again = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+                checksum += Jwts.parserBuilder().setSigningKey(again).build()
+                        .parseClaimsJws(token).getBody().getSubject().length();
+            }
+            long legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += jwtUtils.getPrincipal(jwtUtils.parseClaims(token)).getUsername().length();
+            }
+            long fast = System.nanoTime() - start;
+            System.out.printf("round %d: previous %.0f ns/request, single parse %.0f ns/request (%d)%n",
+                    round, (double) legacy / iterations, (double) fast / iterations, checksum);
+        }
+    }
+}
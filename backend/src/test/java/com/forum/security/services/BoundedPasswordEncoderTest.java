@@ -0,0 +1,112 @@
+package com.forum.security.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new BoundedPasswordEncoder();
+        ReflectionTestUtils.setField(encoder, "strength", 5);
+        ReflectionTestUtils.setField(encoder, "threads", 1);
+        ReflectionTestUtils.setField(encoder, "queueCapacity", 1);
+        encoder.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.stop();
+    }
+
+    @Test
+    void testEncodeAndMatches_ShouldRunOnHashingPool() {
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void testUpgradeEncoding_LowerCost_ShouldMigrateWhenEnabled() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.upgradeEncoding(weak));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+
+        ReflectionTestUtils.setField(encoder, "migrateOnLogin", false);
+        assertFalse(encoder.upgradeEncoding(weak));
+    }
+
+    @Test
+    void testMatches_PoolSaturated_ShouldRejectImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        BCryptPasswordEncoder slow = mock(BCryptPasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return true;
+        });
+        ReflectionTestUtils.setField(encoder, "delegate", slow);
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("a", "h"));
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "h"));
+        while (encoder.queueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> encoder.matches("c", "h"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+        release.countDown();
+        assertTrue(first.get(1, TimeUnit.SECONDS));
+        assertTrue(queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testMatches_WaitTimedOut_ShouldFreeItsQueueSlot() throws Exception {
+        ReflectionTestUtils.setField(encoder, "maxWaitMs", 100L);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        BCryptPasswordEncoder slow = mock(BCryptPasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(inv -> {
+            running.countDown();
+            release.await(2, TimeUnit.SECONDS);
+            return true;
+        });
+        ReflectionTestUtils.setField(encoder, "delegate", slow);
+
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return encoder.matches("a", "h");
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        });
+        assertTrue(running.await(1, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> encoder.matches("b", "h"));
+
+        // The timed-out call no longer occupies the only queue slot
+        assertEquals(0, encoder.queueDepth());
+        release.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        verify(slow, times(1)).matches(any(), any());
+    }
+}
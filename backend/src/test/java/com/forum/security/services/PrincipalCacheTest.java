@@ -0,0 +1,80 @@
+package com.forum.security.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    @Mock
+    private SecurityVersions securityVersions;
+
+    @InjectMocks
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static UserDetailsImpl principal(int tokenVersion) {
+        return new UserDetailsImpl(1L, "student@univ.edu", "hash", true, tokenVersion,
+                List.of(new SimpleGrantedAuthority("STUDENT")));
+    }
+
+    @Test
+    void testGet_CurrentVersion_ShouldReturnCachedPrincipal() {
+        UserDetailsImpl principal = principal(2);
+        when(securityVersions.current(1L)).thenReturn(2);
+
+        principalCache.put("student@univ.edu", principal);
+
+        assertSame(principal, principalCache.get("student@univ.edu"));
+        assertNull(principalCache.get("other@univ.edu"));
+    }
+
+    @Test
+    void testGet_VersionBumped_ShouldDropEntry() {
+        when(securityVersions.current(1L)).thenReturn(3);
+        principalCache.put("student@univ.edu", principal(2));
+
+        assertNull(principalCache.get("student@univ.edu"));
+
+        when(securityVersions.current(1L)).thenReturn(2);
+        assertNull(principalCache.get("student@univ.edu"));
+    }
+
+    @Test
+    void testGet_Expired_ShouldReturnNull() {
+        ReflectionTestUtils.setField(principalCache, "ttlMs", 0L);
+        when(securityVersions.current(1L)).thenReturn(2);
+        principalCache.put("student@univ.edu", principal(2));
+
+        assertNull(principalCache.get("student@univ.edu"));
+    }
+
+    @Test
+    void testPut_AtCapacity_ShouldStayBounded() {
+        ReflectionTestUtils.setField(principalCache, "maxSize", 2);
+        when(securityVersions.current(1L)).thenReturn(0);
+
+        principalCache.put("a@univ.edu", principal(0));
+        principalCache.put("b@univ.edu", principal(0));
+        principalCache.put("c@univ.edu", principal(0));
+
+        int cached = 0;
+        for (String email : List.of("a@univ.edu", "b@univ.edu", "c@univ.edu")) {
+            if (principalCache.get(email) != null) cached++;
+        }
+        assertEquals(2, cached);
+    }
+}
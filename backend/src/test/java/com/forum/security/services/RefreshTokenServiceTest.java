@@ -0,0 +1,152 @@
+package com.forum.security.services;
+
+import com.forum.model.RefreshToken;
+import com.forum.model.Role;
+import com.forum.model.User;
+import com.forum.repository.RefreshTokenRepository;
+import com.forum.repository.UserRepository;
+import com.forum.security.jwt.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private RevocationList revocationList;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private final JwtUtils.IssuedToken access = new JwtUtils.IssuedToken("jwt", "jti-1", new Date(System.currentTimeMillis() + 60000));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private RefreshToken stored(String raw, LocalDateTime revokedAt) {
+        RefreshToken token = new RefreshToken(10L, 7L, RefreshTokenService.hash(raw), "family", "jti-0",
+                LocalDateTime.now().plusMinutes(5), LocalDateTime.now().plusDays(1), revokedAt);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(raw))).thenReturn(Optional.of(token));
+        return token;
+    }
+
+    @Test
+    void testCreate_ShouldStoreOnlyTheHash() {
+        String raw = refreshTokenService.create(7L, access);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(raw, saved.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), saved.getValue().getTokenHash());
+        assertEquals("jti-1", saved.getValue().getAccessTokenId());
+        assertEquals(7L, saved.getValue().getUserId());
+    }
+
+    @Test
+    void testRotate_ValidToken_ShouldSpendItAndIssueSuccessorInSameFamily() {
+        stored("raw", null);
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("student@univ.edu");
+        user.setRole(Role.STUDENT);
+        user.setVerified(true);
+        when(refreshTokenRepository.markSpent(eq(10L), any())).thenReturn(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(jwtUtils.issueAccessToken(any())).thenReturn(access);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw");
+
+        assertEquals("jwt", rotation.access().token());
+        assertNotEquals("raw", rotation.refreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family", saved.getValue().getFamilyId());
+        verifyNoInteractions(revocationList);
+    }
+
+    @Test
+    void testRotate_SpentToken_ShouldRevokeFamilyAndLatestAccessToken() {
+        stored("raw", LocalDateTime.now().minusMinutes(1));
+        LocalDateTime accessExpiry = LocalDateTime.now().plusMinutes(10);
+        RefreshToken successor = new RefreshToken(11L, 7L, "h", "family", "jti-2", accessExpiry,
+                LocalDateTime.now().plusDays(1), null);
+        when(refreshTokenRepository.findByFamilyIdAndRevokedAtIsNull("family")).thenReturn(List.of(successor));
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.rotate("raw"));
+
+        assertNotNull(successor.getRevokedAt());
+        verify(revocationList).revoke("jti-2", accessExpiry);
+        verify(jwtUtils, never()).issueAccessToken(any());
+    }
+
+    private User verifiedUser() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("student@univ.edu");
+        user.setRole(Role.STUDENT);
+        user.setVerified(true);
+        return user;
+    }
+
+    @Test
+    void testRotate_SameTokenWithinGraceWindow_ShouldReturnSameRotation() {
+        RefreshToken token = stored("raw", null);
+        when(refreshTokenRepository.markSpent(eq(10L), any())).thenAnswer(inv -> {
+            token.setRevokedAt(LocalDateTime.now());
+            return 1;
+        });
+        when(userRepository.findById(7L)).thenReturn(Optional.of(verifiedUser()));
+        when(jwtUtils.issueAccessToken(any())).thenReturn(access);
+
+        RefreshTokenService.Rotation first = refreshTokenService.rotate("raw");
+        // A second tab presents the token the first one just spent
+        RefreshTokenService.Rotation second = refreshTokenService.rotate("raw");
+
+        assertSame(first, second);
+        verify(jwtUtils, times(1)).issueAccessToken(any());
+        verify(refreshTokenRepository, never()).findByFamilyIdAndRevokedAtIsNull(any());
+        verifyNoInteractions(revocationList);
+    }
+
+    @Test
+    void testRotate_SameTokenAfterGraceWindow_ShouldRevokeFamily() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshReuseGraceMs", 0L);
+        RefreshToken token = stored("raw", null);
+        when(refreshTokenRepository.markSpent(eq(10L), any())).thenAnswer(inv -> {
+            token.setRevokedAt(LocalDateTime.now());
+            return 1;
+        });
+        when(userRepository.findById(7L)).thenReturn(Optional.of(verifiedUser()));
+        when(jwtUtils.issueAccessToken(any())).thenReturn(access);
+
+        refreshTokenService.rotate("raw");
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.rotate("raw"));
+        verify(refreshTokenRepository).findByFamilyIdAndRevokedAtIsNull("family");
+    }
+}
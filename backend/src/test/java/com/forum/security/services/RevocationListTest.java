@@ -0,0 +1,95 @@
+package com.forum.security.services;
+
+import com.forum.model.RevokedToken;
+import com.forum.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private RevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(any(), any())).thenReturn(List.of());
+        revocationList.start();
+    }
+
+    @Test
+    void testRevoke_ShouldApplyLocallyAndPersist() {
+        revocationList.revoke("jti-1", LocalDateTime.now().plusMinutes(5));
+
+        assertTrue(revocationList.isRevoked("jti-1"));
+        assertFalse(revocationList.isRevoked("jti-2"));
+        assertFalse(revocationList.isRevoked(null));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void testReload_ShouldOnlyReadRowsPastLastSeenIdLessOverlap() {
+        ReflectionTestUtils.setField(revocationList, "reloadOverlap", 0L);
+        LocalDateTime later = LocalDateTime.now().plusMinutes(5);
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(new RevokedToken(3L, "remote", later),
+                        new RevokedToken(4L, "expired", LocalDateTime.now().minusMinutes(1))));
+
+        revocationList.reload();
+        revocationList.reload();
+
+        assertTrue(revocationList.isRevoked("remote"));
+        assertFalse(revocationList.isRevoked("expired"));
+        verify(revokedTokenRepository, atLeastOnce()).findByIdGreaterThanOrderByIdAsc(eq(4L), any(Limit.class));
+    }
+
+    @Test
+    void testReload_RowCommittedLateWithLowerId_ShouldBePickedUp() {
+        ReflectionTestUtils.setField(revocationList, "reloadOverlap", 3L);
+        LocalDateTime later = LocalDateTime.now().plusMinutes(5);
+        // Row 2 is still uncommitted when rows 3 and 4 are first read
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(new RevokedToken(3L, "early", later), new RevokedToken(4L, "other", later)));
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(new RevokedToken(2L, "late", later), new RevokedToken(3L, "early", later),
+                        new RevokedToken(4L, "other", later)));
+
+        revocationList.reload();
+        assertFalse(revocationList.isRevoked("late"));
+        revocationList.reload();
+
+        assertTrue(revocationList.isRevoked("late"));
+        assertTrue(revocationList.isRevoked("early"));
+        assertEquals(3, revocationList.size());
+    }
+
+    @Test
+    void testPurge_ShouldDropExpiredEntries() throws InterruptedException {
+        revocationList.revoke("soon", LocalDateTime.now().plusNanos(50_000_000));
+        revocationList.revoke("later", LocalDateTime.now().plusMinutes(5));
+
+        Thread.sleep(100);
+        revocationList.purge();
+
+        assertFalse(revocationList.isRevoked("soon"));
+        assertTrue(revocationList.isRevoked("later"));
+        assertEquals(1, revocationList.size());
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+}
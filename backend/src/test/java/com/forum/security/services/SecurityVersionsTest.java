@@ -0,0 +1,69 @@
+package com.forum.security.services;
+
+import com.forum.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityVersionsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SecurityVersions securityVersions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testIsCurrent_ShouldLoadOnceAndServeFromCache() {
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(3));
+
+        assertTrue(securityVersions.isCurrent(1L, 3));
+        assertTrue(securityVersions.isCurrent(1L, 3));
+        assertFalse(securityVersions.isCurrent(1L, 2));
+
+        verify(userRepository, times(1)).findTokenVersionById(1L);
+    }
+
+    @Test
+    void testIsCurrent_MissingUser_ShouldBeFalse() {
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.empty());
+
+        assertFalse(securityVersions.isCurrent(1L, 0));
+        assertFalse(securityVersions.isCurrent(null, 0));
+    }
+
+    @Test
+    void testEvict_ShouldReloadNewVersion() {
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0), Optional.of(1));
+        assertTrue(securityVersions.isCurrent(1L, 0));
+
+        securityVersions.evict(1L);
+
+        assertFalse(securityVersions.isCurrent(1L, 0));
+        assertTrue(securityVersions.isCurrent(1L, 1));
+    }
+
+    @Test
+    void testIsCurrent_ExpiredEntry_ShouldReload() {
+        ReflectionTestUtils.setField(securityVersions, "versionTtlMs", 0L);
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+
+        securityVersions.isCurrent(1L, 0);
+        securityVersions.isCurrent(1L, 0);
+
+        verify(userRepository, times(2)).findTokenVersionById(1L);
+    }
+}
@@ -0,0 +1,51 @@
+package com.forum.service;
+
+import com.forum.dto.AuthorDto;
+import com.forum.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorDtoCacheTest {
+
+    @Test
+    void testGet_ShouldLoadOnceAndReuse() {
+        AuthorDtoCache cache = new AuthorDtoCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        AuthorDto first = cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return new AuthorDto(1L, "alice", Role.STUDENT, null);
+        });
+        AuthorDto second = cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return new AuthorDto(1L, "other", Role.STUDENT, null);
+        });
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals("alice", second.getDisplayName());
+    }
+
+    @Test
+    void testEvict_ShouldReloadOnNextGet() {
+        AuthorDtoCache cache = new AuthorDtoCache();
+        cache.get(1L, () -> new AuthorDto(1L, "old", Role.STUDENT, null));
+
+        cache.evict(1L);
+        AuthorDto reloaded = cache.get(1L, () -> new AuthorDto(1L, "new", Role.PROFESSOR, "p@uni.edu"));
+
+        assertEquals("new", reloaded.getDisplayName());
+        assertEquals(Role.PROFESSOR, reloaded.getRole());
+    }
+
+    @Test
+    void testCachedInstance_ShouldBeReadOnly() {
+        AuthorDtoCache cache = new AuthorDtoCache();
+        AuthorDto cached = cache.get(1L, () -> new AuthorDto(1L, "alice", Role.STUDENT, null));
+
+        assertThrows(UnsupportedOperationException.class, () -> cached.setDisplayName("mallory"));
+    }
+}
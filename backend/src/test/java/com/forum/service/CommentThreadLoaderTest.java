@@ -0,0 +1,145 @@
+package com.forum.service;
+
+import com.forum.dto.AuthorDto;
+import com.forum.dto.CommentResponse;
+import com.forum.dto.CursorPage;
+import com.forum.repository.CommentRepository;
+import com.forum.repository.CommentRowView;
+import com.forum.repository.ReplyCountView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentThreadLoaderTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private CommentRowView row(long id, Long parentId, int minute) {
+        return row(id, parentId, minute, 1L);
+    }
+
+    private CommentRowView row(long id, Long parentId, int minute, long postId) {
+        CommentRowView row = mock(CommentRowView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getParentId()).thenReturn(parentId);
+        when(row.getPostId()).thenReturn(postId);
+        when(row.getTimestamp()).thenReturn(BASE.plusMinutes(minute));
+        return row;
+    }
+
+    private ReplyCountView count(long parentId, long replies) {
+        ReplyCountView view = mock(ReplyCountView.class);
+        when(view.getParentId()).thenReturn(parentId);
+        when(view.getReplyCount()).thenReturn(replies);
+        return view;
+    }
+
+    private CursorPage<CommentResponse> slice(String cursor, int maxDepth, int replyLimit) {
+        return CommentThreadLoader.of(commentRepository, 1L, r -> new AuthorDto()).slice(cursor, maxDepth, replyLimit);
+    }
+
+    @Test
+    void testSlice_ShouldReadOnePagePerLevelAndOnlyPageLargeParents() {
+        List<CommentRowView> top = List.of(row(1, null, 0), row(2, null, 1), row(3, null, 2));
+        List<CommentRowView> smallReplies = List.of(row(10, 1L, 3), row(11, 1L, 4));
+        List<CommentRowView> largeReplies = List.of(row(20, 2L, 5), row(21, 2L, 6));
+        List<ReplyCountView> topCounts = List.of(count(1, 2), count(2, 40));
+        List<ReplyCountView> replyCounts = List.of(count(10, 1));
+        when(commentRepository.findTopLevelFirstPage(1L, Limit.of(3))).thenReturn(top);
+        when(commentRepository.countRepliesByParentIdIn(List.of(1L, 2L))).thenReturn(topCounts);
+        when(commentRepository.findRepliesFirstPage(1L, 2L, Limit.of(2))).thenReturn(largeReplies);
+        when(commentRepository.findAllByParentIdIn(List.of(1L))).thenReturn(smallReplies);
+        when(commentRepository.countRepliesByParentIdIn(List.of(20L, 21L, 10L, 11L))).thenReturn(replyCounts);
+
+        CursorPage<CommentResponse> page = slice(null, 2, 2);
+
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(CommentResponse::getId).toList());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        CommentResponse small = page.getItems().get(0);
+        assertEquals(2, small.getReplyCount());
+        assertNull(small.getRepliesCursor());
+        // Cut at maxDepth: the count is known, the replies are left to the cursor
+        assertEquals(1, small.getReplies().get(0).getReplyCount());
+        assertTrue(small.getReplies().get(0).getReplies().isEmpty());
+        assertNotNull(small.getReplies().get(0).getRepliesCursor());
+
+        CommentResponse large = page.getItems().get(1);
+        assertEquals(40, large.getReplyCount());
+        assertEquals(2, large.getReplies().size());
+        assertNotNull(large.getRepliesCursor());
+
+        verify(commentRepository, times(2)).countRepliesByParentIdIn(anyCollection());
+    }
+
+    @Test
+    void testSlice_ReplyCursor_ShouldContinueWithKeysetQuery() {
+        CommentRowView last = row(21, 2L, 6);
+        String cursor = ThreadCursor.after(1L, 2L, last).encode();
+        List<CommentRowView> next = List.of(row(22, 2L, 7));
+        when(commentRepository.findRepliesAfter(1L, 2L, BASE.plusMinutes(6), 21L, Limit.of(3))).thenReturn(next);
+
+        CursorPage<CommentResponse> page = slice(cursor, 1, 2);
+
+        assertEquals(List.of(22L), page.getItems().stream().map(CommentResponse::getId).toList());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(commentRepository, never()).findTopLevelFirstPage(any(), any());
+    }
+
+    @Test
+    void testSlice_CursorOfAnotherPost_ShouldFail() {
+        String cursor = ThreadCursor.start(2L, 5L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> slice(cursor, 1, 2));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void testFirstSlices_ShouldShareEachLevelAcrossPosts() {
+        List<CommentRowView> top = List.of(row(1, null, 0, 1L), row(2, null, 1, 1L), row(3, null, 2, 1L), row(4, null, 3, 2L));
+        List<CommentRowView> replies = List.of(row(10, 1L, 4, 1L), row(40, 4L, 5, 2L));
+        List<ReplyCountView> topCounts = List.of(count(1, 1), count(4, 1));
+        when(commentRepository.findTopLevelFirstPageIds(List.of(1L, 2L, 3L), 3)).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(commentRepository.findTopLevelByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(top);
+        when(commentRepository.countRepliesByParentIdIn(List.of(1L, 2L, 4L))).thenReturn(topCounts);
+        when(commentRepository.findAllByParentIdIn(List.of(1L, 4L))).thenReturn(replies);
+
+        Map<Long, CursorPage<CommentResponse>> slices = CommentThreadLoader.firstSlices(
+                commentRepository, List.of(1L, 2L, 3L), r -> new AuthorDto(), 2, 2);
+
+        CursorPage<CommentResponse> first = slices.get(1L);
+        assertEquals(List.of(1L, 2L), first.getItems().stream().map(CommentResponse::getId).toList());
+        assertTrue(first.isHasMore());
+        assertEquals(10L, first.getItems().get(0).getReplies().get(0).getId());
+        CursorPage<CommentResponse> second = slices.get(2L);
+        assertEquals(List.of(4L), second.getItems().stream().map(CommentResponse::getId).toList());
+        assertFalse(second.isHasMore());
+        assertEquals(40L, second.getItems().get(0).getReplies().get(0).getId());
+        assertTrue(slices.get(3L).getItems().isEmpty());
+
+        verify(commentRepository, never()).findTopLevelFirstPage(any(), any());
+        verify(commentRepository, times(1)).findAllByParentIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,44 @@
+package com.forum.service;
+
+import com.forum.event.PostChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentVersionsTest {
+
+    @Test
+    void testPostChanged_ShouldChangePostAndForumTags() {
+        ContentVersions versions = new ContentVersions();
+        String post = versions.postETag(1L, 6, 50);
+        String forum = versions.forumETag(10L);
+        String otherForum = versions.forumETag(11L);
+
+        versions.onPostChanged(new PostChangedEvent(1L, 10L, PostChangedEvent.Change.COMMENT_ADDED));
+
+        assertNotEquals(post, versions.postETag(1L, 6, 50));
+        assertNotEquals(forum, versions.forumETag(10L));
+        assertEquals(otherForum, versions.forumETag(11L));
+    }
+
+    @Test
+    void testPostETag_ShouldDependOnThreadLimits() {
+        ContentVersions versions = new ContentVersions();
+
+        assertEquals(versions.postETag(1L, 6, 50), versions.postETag(1L, 6, 50));
+        assertNotEquals(versions.postETag(1L, 6, 50), versions.postETag(1L, 2, 50));
+        assertTrue(versions.postETag(1L, 6, 50).startsWith("\""));
+    }
+
+    @Test
+    void testBumpAll_ShouldChangeEveryTag() {
+        ContentVersions versions = new ContentVersions();
+        String post = versions.postETag(1L, 6, 50);
+        String forum = versions.forumETag(10L);
+
+        versions.bumpAll();
+
+        assertNotEquals(post, versions.postETag(1L, 6, 50));
+        assertNotEquals(forum, versions.forumETag(10L));
+    }
+}
@@ -0,0 +1,33 @@
+package com.forum.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForumAccessCacheTest {
+
+    @Test
+    void testPutAndEvict() {
+        ForumAccessCache cache = new ForumAccessCache();
+        cache.put(1L, List.of(10L, 11L), cache.generation());
+
+        assertEquals(List.of(10L, 11L), cache.get(1L));
+
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testPut_AfterConcurrentEviction_ShouldBeDropped() {
+        ForumAccessCache cache = new ForumAccessCache();
+        long observed = cache.generation();
+
+        // Access changed while the ids were being resolved
+        cache.evict(1L);
+        cache.put(1L, List.of(10L), observed);
+
+        assertNull(cache.get(1L));
+    }
+}
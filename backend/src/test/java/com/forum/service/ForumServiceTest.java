@@ -2,17 +2,38 @@ package com.forum.service;
 
 import com.forum.model.*;
 import com.forum.repository.CommentRepository;
+import com.forum.repository.ForumRepository;
 import com.forum.repository.PostRepository;
 import com.forum.repository.UserRepository;
+import com.forum.repository.VoteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import com.forum.dto.CommentResponse;
+import com.forum.dto.CursorPage;
+import com.forum.dto.PostResponse;
+import com.forum.dto.PostSummary;
+import com.forum.dto.VoteResponse;
+import com.forum.repository.CommentCountView;
+import com.forum.repository.CommentParentView;
+import com.forum.repository.CommentRowView;
+import com.forum.repository.ReplyCountView;
+import com.forum.repository.PostSummaryView;
+import com.forum.event.PostChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +41,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @SuppressWarnings("null")
 class ForumServiceTest {
 
+    @Mock
+    private ForumRepository forumRepository;
+
     @Mock
     private PostRepository postRepository;
 
@@ -29,9 +53,30 @@ class ForumServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private VoteRepository voteRepository;
+
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private VoteBuffer voteBuffer;
+
+    @Spy
+    private AuthorDtoCache authorDtoCache = new AuthorDtoCache();
+
+    @Spy
+    private ForumAccessCache forumAccessCache = new ForumAccessCache();
+
+    @Spy
+    private PostResponseCache postResponseCache = new PostResponseCache();
+
+    @Spy
+    private ContentVersions contentVersions = new ContentVersions();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ForumService forumService;
 
@@ -40,6 +85,39 @@ class ForumServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void testCreatePost_Professor_ShouldAnnounceOnceToForum() {
+        User professor = new User();
+        professor.setId(3L);
+        professor.setRole(Role.PROFESSOR);
+        professor.setEmail("prof@univ.edu");
+        Forum forum = new Forum();
+        forum.setId(5L);
+
+        when(userRepository.findByEmail("prof@univ.edu")).thenReturn(Optional.of(professor));
+        when(forumRepository.findById(5L)).thenReturn(Optional.of(forum));
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post p = invocation.getArgument(0);
+            p.setId(42L);
+            return p;
+        });
+
+        forumService.createPost(5L, "Exam moved", "See you Friday", "prof@univ.edu");
+
+        verify(notificationService, times(1)).announce(5L, "New announcement: Exam moved", 42L);
+        verify(notificationService, never()).createNotification(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetStudentForumIds_NonStudent_ShouldBeEmpty() {
+        User professor = new User();
+        professor.setId(3L);
+        professor.setRole(Role.PROFESSOR);
+
+        assertTrue(forumService.getStudentForumIds(professor).isEmpty());
+        verifyNoInteractions(forumRepository);
+    }
+
     @Test
     void testAddComment_OfficialRepliesToStudentPost_ShouldNotify() {
         // Arrange
@@ -280,6 +358,36 @@ class ForumServiceTest {
         verify(postRepository, times(1)).save(post);
     }
 
+    @Test
+    void testGetPost_SecondRead_ShouldBeServedFromCacheUntilChanged() {
+        Long postId = 1L;
+        User author = new User();
+        author.setId(2L);
+        author.setFirstName("Ana");
+
+        Post post = new Post();
+        post.setId(postId);
+        post.setTitle("Title");
+        post.setContent("Content");
+        post.setAuthor(author);
+        Forum forum = new Forum();
+        forum.setId(100L);
+        post.setForum(forum);
+
+        when(postRepository.findById(postId)).thenReturn(Optional.of(post));
+        when(commentRepository.findTopLevelFirstPage(eq(postId), any(Limit.class))).thenReturn(new ArrayList<>());
+
+        PostResponse first = forumService.getPost(postId, null, null);
+        PostResponse second = forumService.getPost(postId, null, null);
+
+        assertSame(first, second);
+        verify(postRepository, times(1)).findById(postId);
+
+        postResponseCache.onPostChanged(new PostChangedEvent(postId, null, PostChangedEvent.Change.EDITED));
+        forumService.getPost(postId, null, null);
+        verify(postRepository, times(2)).findById(postId);
+    }
+
     @Test
     void testUpdatePost_OtherUserUpdates_ShouldFail() {
         Long postId = 1L;
@@ -328,4 +436,241 @@ class ForumServiceTest {
         assertNotNull(comment.getEditedAt());
         verify(commentRepository, times(1)).save(comment);
     }
+
+    @Test
+    void testGetPostsPage_MoreRowsThanPageSize_ShouldReturnCursor() {
+        Long forumId = 100L;
+        Forum forum = new Forum();
+        forum.setId(forumId);
+        User author = new User();
+        author.setId(2L);
+        author.setRole(Role.STUDENT);
+
+        List<Post> rows = new ArrayList<>();
+        for (long i = 3; i >= 1; i--) {
+            Post p = new Post();
+            p.setId(i);
+            p.setForum(forum);
+            p.setAuthor(author);
+            p.setScore((int) i);
+            p.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+            rows.add(p);
+        }
+        when(postRepository.findFirstPageByForumId(eq(forumId), any(Limit.class))).thenReturn(rows);
+
+        CursorPage<PostResponse> page = forumService.getPostsPage(forumId, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        verify(postRepository).findFirstPageByForumId(forumId, Limit.of(3));
+
+        Post last = rows.get(1);
+        when(postRepository.findPageByForumIdAfter(eq(forumId), eq(false), eq(2), eq(last.getTimestamp()), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(rows.get(2)));
+
+        CursorPage<PostResponse> next = forumService.getPostsPage(forumId, page.getNextCursor(), 2);
+
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetPostsPage_ShouldLoadFirstSlicesAndCountsOfAllPostsTogether() {
+        Forum forum = new Forum();
+        forum.setId(100L);
+        User author = new User();
+        author.setId(2L);
+        author.setRole(Role.STUDENT);
+        List<Post> posts = new ArrayList<>();
+        for (long id = 1; id <= 2; id++) {
+            Post p = new Post();
+            p.setId(id);
+            p.setForum(forum);
+            p.setAuthor(author);
+            p.setTimestamp(LocalDateTime.of(2024, 1, 1, 0, 0));
+            posts.add(p);
+        }
+        when(postRepository.findFirstPageByForumId(eq(100L), any(Limit.class))).thenReturn(posts);
+        List<CommentRowView> top = List.of(commentRow(10L, null, 1L), commentRow(12L, null, 2L));
+        List<CommentRowView> replies = List.of(commentRow(11L, 10L, 1L));
+        List<ReplyCountView> topCounts = List.of(replyCount(10L, 1));
+        List<CommentCountView> counts = List.of(commentCount(1L, 2), commentCount(2L, 1));
+        when(commentRepository.findTopLevelFirstPageIds(eq(List.of(1L, 2L)), anyInt())).thenReturn(List.of(10L, 12L));
+        when(commentRepository.findTopLevelByIdIn(List.of(10L, 12L))).thenReturn(top);
+        when(commentRepository.countRepliesByParentIdIn(List.of(10L, 12L))).thenReturn(topCounts);
+        when(commentRepository.findAllByParentIdIn(List.of(10L))).thenReturn(replies);
+        when(commentRepository.countByPostIdIn(List.of(1L, 2L))).thenReturn(counts);
+
+        CursorPage<PostResponse> page = forumService.getPostsPage(100L, null, 10);
+
+        // Counted like PostSummary: every comment, not only top-level ones
+        assertEquals(2, page.getItems().get(0).getCommentCount());
+        assertEquals(1, page.getItems().get(0).getComments().size());
+        assertEquals(11L, page.getItems().get(0).getComments().get(0).getReplies().get(0).getId());
+        assertEquals(1, page.getItems().get(1).getCommentCount());
+        assertEquals(12L, page.getItems().get(1).getComments().get(0).getId());
+        // Each level is read once for the whole page, never per post
+        verify(commentRepository, times(1)).findTopLevelFirstPageIds(any(), anyInt());
+        verify(commentRepository, times(1)).countRepliesByParentIdIn(List.of(10L, 12L));
+        verify(commentRepository, never()).findTopLevelFirstPage(any(), any());
+        verify(commentRepository, never()).countByPostId(any());
+    }
+
+    private static ReplyCountView replyCount(Long parentId, long replies) {
+        ReplyCountView view = mock(ReplyCountView.class);
+        when(view.getParentId()).thenReturn(parentId);
+        when(view.getReplyCount()).thenReturn(replies);
+        return view;
+    }
+
+    private static CommentCountView commentCount(Long postId, long comments) {
+        CommentCountView view = mock(CommentCountView.class);
+        when(view.getPostId()).thenReturn(postId);
+        when(view.getCommentCount()).thenReturn(comments);
+        return view;
+    }
+
+    private static CommentRowView commentRow(Long id, Long parentId, Long postId) {
+        CommentRowView row = mock(CommentRowView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getParentId()).thenReturn(parentId);
+        when(row.getPostId()).thenReturn(postId);
+        when(row.getAuthorId()).thenReturn(2L);
+        when(row.getAuthorRole()).thenReturn(Role.STUDENT);
+        when(row.getTimestamp()).thenReturn(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        return row;
+    }
+
+    @Test
+    void testGetCommentThread_ShouldOverlayBufferedCommentVotes() {
+        List<CommentRowView> top = List.of(commentRow(10L, null, 1L));
+        List<CommentRowView> replies = List.of(commentRow(11L, 10L, 1L));
+        when(commentRepository.findTopLevelFirstPage(eq(1L), any(Limit.class))).thenReturn(top);
+        when(commentRepository.findAllByParentIdIn(List.of(10L))).thenReturn(replies);
+        ReplyCountView count = mock(ReplyCountView.class);
+        when(count.getParentId()).thenReturn(10L);
+        when(count.getReplyCount()).thenReturn(1L);
+        when(commentRepository.countRepliesByParentIdIn(List.of(10L))).thenReturn(List.of(count));
+        when(voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, 10L)).thenReturn(2);
+        when(voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, 11L)).thenReturn(-1);
+
+        CursorPage<CommentResponse> page = forumService.getCommentThread(1L, null, null, null);
+
+        assertEquals(2, page.getItems().get(0).getScore());
+        assertEquals(-1, page.getItems().get(0).getReplies().get(0).getScore());
+    }
+
+    @Test
+    void testGetPostsPage_InvalidCursor_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> forumService.getPostsPage(100L, "bogus", 10));
+    }
+
+    @Test
+    void testGetPostSummaries_ShouldTruncateExcerptAndUseLatestActivity() {
+        Long forumId = 100L;
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime lastComment = created.plusDays(2);
+
+        PostSummaryView row = mock(PostSummaryView.class);
+        when(row.getId()).thenReturn(1L);
+        when(row.getTitle()).thenReturn("Exam dates");
+        when(row.getExcerpt()).thenReturn("x".repeat(PostRepository.EXCERPT_LENGTH + 1));
+        when(row.getTimestamp()).thenReturn(created);
+        when(row.getEditedAt()).thenReturn(created.plusDays(1));
+        when(row.getLastCommentAt()).thenReturn(lastComment);
+        when(row.getCommentCount()).thenReturn(12L);
+        when(row.getAuthorId()).thenReturn(3L);
+        when(row.getAuthorRole()).thenReturn(Role.PROFESSOR);
+        when(row.getAuthorFirstName()).thenReturn("Alan");
+        when(row.getAuthorLastName()).thenReturn("Turing");
+        when(row.getAuthorEmail()).thenReturn("prof.cs@uni.edu");
+        when(postRepository.findSummariesFirstPageByForumId(eq(forumId), any(Limit.class))).thenReturn(List.of(row));
+
+        CursorPage<PostSummary> page = forumService.getPostSummaries(forumId, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        PostSummary summary = page.getItems().get(0);
+        assertEquals(PostRepository.EXCERPT_LENGTH + 3, summary.getExcerpt().length());
+        assertTrue(summary.getExcerpt().endsWith("..."));
+        assertEquals(lastComment, summary.getLastActivity());
+        assertEquals(12L, summary.getCommentCount());
+        assertEquals("Alan Turing", summary.getAuthor().getDisplayName());
+        assertEquals("prof.cs@uni.edu", summary.getAuthor().getEmail());
+    }
+
+    @Test
+    void testGetForumsForUser_Student_ShouldResolveOnceThenUseCachedIds() {
+        String email = "alice@uni.edu";
+        User student = new User();
+        student.setId(5L);
+        student.setRole(Role.STUDENT);
+        student.setEmail(email);
+
+        Forum allowed = new Forum();
+        allowed.setId(42L);
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(student));
+        when(forumRepository.findByAllowedUsersId(5L)).thenReturn(List.of(allowed));
+        when(forumRepository.findAllById(List.of(42L))).thenReturn(List.of(allowed));
+
+        List<Forum> first = forumService.getForumsForUser(email);
+        List<Forum> second = forumService.getForumsForUser(email);
+
+        assertEquals(List.of(allowed), first);
+        assertEquals(List.of(allowed), second);
+        verify(forumRepository, times(1)).findByAllowedUsersId(5L);
+        verify(forumRepository, times(1)).findAllById(List.of(42L));
+        verify(forumRepository, never()).findAll();
+    }
+
+    @Test
+    void testVotePost_ChangeVote_ShouldApplyDeltaAtomically() {
+        Long postId = 1L;
+        String email = "student@univ.edu";
+        User voter = new User();
+        voter.setId(4L);
+
+        Vote existing = new Vote();
+        existing.setId(9L);
+        existing.setValue(-1);
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(voter));
+        when(postRepository.findForumIdById(postId)).thenReturn(Optional.of(2L));
+        when(voteRepository.findByUserIdAndPostId(4L, postId)).thenReturn(Optional.of(existing));
+        when(voteRepository.updateValueIfUnchanged(9L, -1, 1)).thenReturn(1);
+        when(postRepository.findScoreById(postId)).thenReturn(Optional.of(7));
+
+        VoteResponse response = forumService.votePost(postId, 1, email);
+
+        verify(postRepository).addToScore(postId, 2);
+        verify(postRepository, never()).findById(any());
+        verify(postRepository, never()).save(any());
+        assertEquals(7, response.getScore());
+        assertEquals(1, response.getUserVote());
+    }
+
+    @Test
+    void testVoteComment_ConcurrentChange_ShouldFail() {
+        Long commentId = 3L;
+        String email = "student@univ.edu";
+        User voter = new User();
+        voter.setId(4L);
+
+        Vote existing = new Vote();
+        existing.setId(9L);
+        existing.setValue(1);
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(voter));
+        CommentParentView parent = mock(CommentParentView.class);
+        when(parent.getPostId()).thenReturn(1L);
+        when(commentRepository.findParentById(commentId)).thenReturn(Optional.of(parent));
+        when(voteRepository.findByUserIdAndCommentId(4L, commentId)).thenReturn(Optional.of(existing));
+        when(voteRepository.deleteIfUnchanged(9L, 1)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> forumService.voteComment(commentId, 1, email));
+        verify(commentRepository, never()).addToScore(any(), anyInt());
+    }
 }
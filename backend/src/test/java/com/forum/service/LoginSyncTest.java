@@ -0,0 +1,103 @@
+package com.forum.service;
+
+import com.forum.model.Role;
+import com.forum.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginSyncTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private LoginSync loginSync;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(loginSync, "threads", 1);
+        ReflectionTestUtils.setField(loginSync, "queueCapacity", 1);
+        loginSync.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginSync.stop();
+    }
+
+    private static User student(String email, LocalDateTime rosterSyncedAt) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(Role.STUDENT);
+        user.setRosterSyncedAt(rosterSyncedAt);
+        return user;
+    }
+
+    @Test
+    void testSubmit_ShouldSyncOffTheCallingThread() {
+        String caller = Thread.currentThread().getName();
+        String[] worker = new String[1];
+        doAnswer(inv -> {
+            worker[0] = Thread.currentThread().getName();
+            return null;
+        }).when(userService).syncStudentData("student@univ.edu");
+
+        loginSync.submit(student("student@univ.edu", null));
+
+        verify(userService, timeout(1000)).syncStudentData("student@univ.edu");
+        assertNotEquals(caller, worker[0]);
+    }
+
+    @Test
+    void testSubmit_SyncedRecently_ShouldSkip() {
+        // The interval comes from the persisted sync time, so it holds across instances and restarts
+        loginSync.submit(student("recent@univ.edu", LocalDateTime.now().minusMinutes(1)));
+        loginSync.submit(student("stale@univ.edu", LocalDateTime.now().minusDays(1)));
+
+        verify(userService, timeout(1000)).syncStudentData("stale@univ.edu");
+        verify(userService, after(100).never()).syncStudentData("recent@univ.edu");
+    }
+
+    @Test
+    void testSubmit_NotAStudent_ShouldSkip() {
+        User professor = student("prof@univ.edu", null);
+        professor.setRole(Role.PROFESSOR);
+
+        loginSync.submit(professor);
+
+        verify(userService, after(100).never()).syncStudentData(any());
+    }
+
+    @Test
+    void testSubmit_AlreadyPending_ShouldNotQueueTwice() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(1, TimeUnit.SECONDS);
+            return null;
+        }).when(userService).syncStudentData("busy@univ.edu");
+
+        loginSync.submit(student("busy@univ.edu", null));
+        loginSync.submit(student("busy@univ.edu", null));
+        // The single worker is blocked and the queue holds one task, so this one is dropped
+        loginSync.submit(student("queued@univ.edu", null));
+        loginSync.submit(student("dropped@univ.edu", null));
+        release.countDown();
+
+        verify(userService, timeout(1000)).syncStudentData("queued@univ.edu");
+        verify(userService, after(100).times(1)).syncStudentData("busy@univ.edu");
+        verify(userService, never()).syncStudentData("dropped@univ.edu");
+    }
+}
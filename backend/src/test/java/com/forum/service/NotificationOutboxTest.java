@@ -0,0 +1,249 @@
+package com.forum.service;
+
+import com.forum.dto.NotificationDto;
+import com.forum.model.NotificationOutboxEntry;
+import com.forum.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationOutboxTest {
+
+    private NotificationOutbox outbox;
+    private JdbcTemplate jdbcTemplate;
+    private NotificationOutboxRepository outboxRepository;
+    private SimpMessagingTemplate messagingTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outbox = new NotificationOutbox();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        outboxRepository = mock(NotificationOutboxRepository.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        ReflectionTestUtils.setField(outbox, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(outbox, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(outbox, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(outbox, "messagingTemplate", messagingTemplate);
+        // No worker thread, so queued notifications stay put
+        ReflectionTestUtils.setField(outbox, "queue", new ArrayBlockingQueue<>(1));
+
+        AtomicLong outboxIds = new AtomicLong();
+        when(outboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<NotificationOutboxEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> entry.setId(outboxIds.incrementAndGet()));
+            return entries;
+        });
+        // Every outbox row is still there to be claimed
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE"), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    int[] counts = new int[invocation.<List<?>>getArgument(1).size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][] {counts};
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSubmit_ShouldStageRowEvenWhenQueueIsFull() {
+        outbox.submit(1L, "first", "OFFICIAL_POST_COMMENT", 10L);
+        outbox.submit(2L, "second", "OFFICIAL_POST_COMMENT", 10L);
+
+        assertEquals(1, outbox.queueDepth());
+        ArgumentCaptor<List<NotificationOutboxEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository, times(2)).saveAll(saved.capture());
+        assertEquals(2L, saved.getValue().get(0).getRecipientId());
+        assertEquals("second", saved.getValue().get(0).getMessage());
+    }
+
+    @Test
+    void testShutdown_ShouldLeaveQueuedNotificationsInOutbox() {
+        outbox.submit(1L, "first", "OFFICIAL_POST_COMMENT", 10L);
+
+        outbox.shutdown();
+
+        assertEquals(0, outbox.queueDepth());
+        verify(outboxRepository, times(1)).saveAll(anyList());
+        verify(outboxRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDrainOutbox_ShouldClaimInsertAndDispatch() {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry(5L, 1L, "msg", "OFFICIAL_COMMENT_REPLY", 10L, LocalDateTime.now());
+        when(outboxRepository.findByTimestampBeforeOrderByIdAsc(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(entry));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(42L));
+
+        outbox.drainOutbox();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("DELETE"), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/notifications"), sent.capture());
+        assertEquals(42L, sent.getValue().getId());
+        assertEquals("msg", sent.getValue().getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDrainOutbox_BatchFails_ShouldRetryRowsAndDropPermanentFailures() {
+        LocalDateTime now = LocalDateTime.now();
+        NotificationOutboxEntry orphan = new NotificationOutboxEntry(5L, 99L, "gone", "OFFICIAL_COMMENT_REPLY", 10L, now);
+        NotificationOutboxEntry valid = new NotificationOutboxEntry(6L, 1L, "msg", "OFFICIAL_COMMENT_REPLY", 10L, now);
+        when(outboxRepository.findByTimestampBeforeOrderByIdAsc(any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(List.of(orphan, valid));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_user"))
+                .thenThrow(new DataIntegrityViolationException("fk_user"))
+                .thenReturn(List.of(42L));
+
+        outbox.drainOutbox();
+
+        verify(outboxRepository).deleteById(5L);
+        verify(outboxRepository, never()).deleteById(6L);
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/notifications"), any(NotificationDto.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("99"), anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDrainOutbox_TransientFailure_ShouldKeepRows() {
+        NotificationOutboxEntry entry = new NotificationOutboxEntry(5L, 1L, "msg", "OFFICIAL_COMMENT_REPLY", 10L, LocalDateTime.now());
+        when(outboxRepository.findByTimestampBeforeOrderByIdAsc(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(entry));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        outbox.drainOutbox();
+
+        verify(outboxRepository, never()).deleteById(any());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliverQueued() {
+        BlockingQueue<List<Object>> queue = (BlockingQueue<List<Object>>) ReflectionTestUtils.getField(outbox, "queue");
+        List<Object> batch = new ArrayList<>();
+        queue.forEach(batch::addAll);
+        queue.clear();
+        ReflectionTestUtils.invokeMethod(outbox, "deliver", batch);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeliver_RepeatsWithinWindow_ShouldCoalesceIntoOneRow() {
+        ReflectionTestUtils.setField(outbox, "queue", new ArrayBlockingQueue<>(10));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(42L));
+
+        // A burst in one batch becomes a single row with a count
+        outbox.submit(1L, "An official commented on your post: T", "OFFICIAL_POST_COMMENT", 10L);
+        outbox.submit(1L, "An official commented on your post: T", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/notifications"), sent.capture());
+        assertEquals(2, sent.getValue().getCount());
+
+        // A later repeat inside the window is only counted, then merged when the window closes
+        outbox.submit(1L, "An official commented on your post: T", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+
+        ReflectionTestUtils.invokeMethod(outbox, "closeWindows", true);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("1"), eq("/queue/notifications"), sent.capture());
+        assertEquals(42L, sent.getValue().getId());
+        assertEquals(3, sent.getValue().getCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeliver_WindowDisabled_ShouldInsertEachNotification() {
+        ReflectionTestUtils.setField(outbox, "queue", new ArrayBlockingQueue<>(10));
+        ReflectionTestUtils.setField(outbox, "coalesceWindowMs", 0L);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(1L, 2L));
+
+        outbox.submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+        outbox.submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("1"), eq("/queue/notifications"), any(NotificationDto.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeliver_RowAlreadyDrained_ShouldNotDeliverItAgain() {
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE"), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{0}});
+
+        outbox.submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRelease_ShouldQueueRecipientsNotificationsAsOneUnit() {
+        List<NotificationOutbox.Pending> unit = outbox.stage(1L, List.of(
+                new NotificationOutbox.Draft("a", "OFFICIAL_POST_COMMENT", 10L),
+                new NotificationOutbox.Draft("b", "OFFICIAL_POST_COMMENT", 11L)));
+
+        outbox.release(unit);
+
+        assertEquals(1, outbox.queueDepth());
+        verify(outboxRepository, times(1)).saveAll(anyList());
+        assertEquals(List.of(1L, 2L), unit.stream().map(NotificationOutbox.Pending::outboxId).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCloseWindows_MergeFails_ShouldKeepWindowForRetry() {
+        ReflectionTestUtils.setField(outbox, "queue", new ArrayBlockingQueue<>(10));
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(42L));
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[][] {{1}});
+
+        outbox.submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+        outbox.submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+        deliverQueued();
+
+        ReflectionTestUtils.invokeMethod(outbox, "closeWindows", true);
+        assertEquals(1, ((Map<?, ?>) ReflectionTestUtils.getField(outbox, "windows")).size());
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("1"), eq("/queue/notifications"), any(NotificationDto.class));
+
+        ReflectionTestUtils.invokeMethod(outbox, "closeWindows", true);
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(outbox, "windows")).isEmpty());
+        ArgumentCaptor<NotificationDto> sent = ArgumentCaptor.forClass(NotificationDto.class);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("1"), eq("/queue/notifications"), sent.capture());
+        assertEquals(2, sent.getValue().getCount());
+    }
+}
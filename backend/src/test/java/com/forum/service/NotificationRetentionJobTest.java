@@ -0,0 +1,73 @@
+package com.forum.service;
+
+import com.forum.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationRetentionJobTest {
+
+    private NotificationRetentionJob job;
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void setUp() {
+        job = new NotificationRetentionJob();
+        notificationRepository = mock(NotificationRepository.class);
+        ReflectionTestUtils.setField(job, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(job, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        ReflectionTestUtils.setField(job, "maxPerUser", 3);
+        ReflectionTestUtils.setField(job, "pauseMs", 0L);
+        when(notificationRepository.deleteByIdIn(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+    }
+
+    @Test
+    void testRun_AgedReadNotifications_ShouldDeleteInChunks() {
+        when(notificationRepository.findReadIdsBefore(any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        NotificationRetentionJob.Result result = job.run();
+
+        assertEquals(3, result.aged());
+        verify(notificationRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(notificationRepository).deleteByIdIn(List.of(3L));
+    }
+
+    @Test
+    void testRun_UserOverCap_ShouldDeleteOldestBeyondCap() {
+        when(notificationRepository.findReadIdsBefore(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of());
+        when(notificationRepository.findRecipientIdsWithMoreThan(3L)).thenReturn(List.of(7L));
+        when(notificationRepository.findIdsByRecipientIdNewestFirst(7L, Limit.of(5)))
+                .thenReturn(List.of(10L, 9L, 8L, 7L, 6L), List.of(10L, 9L, 8L, 5L));
+
+        NotificationRetentionJob.Result result = job.run();
+
+        assertEquals(3, result.overCap());
+        assertEquals(3, result.total());
+        verify(notificationRepository).deleteByIdIn(List.of(7L, 6L));
+        verify(notificationRepository).deleteByIdIn(List.of(5L));
+    }
+
+    @Test
+    void testScheduledRun_Disabled_ShouldDoNothing() {
+        ReflectionTestUtils.setField(job, "enabled", false);
+
+        job.scheduledRun();
+
+        verify(notificationRepository, never()).findReadIdsBefore(any(), any());
+        verify(notificationRepository, never()).findRecipientIdsWithMoreThan(anyLong());
+    }
+}
@@ -0,0 +1,305 @@
+package com.forum.service;
+
+import com.forum.dto.CursorPage;
+import com.forum.dto.MarkReadRequest;
+import com.forum.dto.NotificationDto;
+import com.forum.model.Announcement;
+import com.forum.model.AnnouncementWatermark;
+import com.forum.model.Notification;
+import com.forum.model.User;
+import com.forum.repository.AnnouncementRepository;
+import com.forum.repository.AnnouncementWatermarkRepository;
+import com.forum.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private AnnouncementRepository announcementRepository;
+
+    @Mock
+    private AnnouncementWatermarkRepository watermarkRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(notificationService);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    @Test
+    void testCreateNotification_NoTransaction_ShouldQueueImmediately() {
+        notificationService.createNotification(user(1L), "msg", "OFFICIAL_POST_COMMENT", 10L);
+
+        verify(notificationOutbox).submit(1L, "msg", "OFFICIAL_POST_COMMENT", 10L);
+    }
+
+    @Test
+    void testCreateNotification_InTransaction_ShouldStageAndQueueEachRecipientAsOneUnit() {
+        TransactionSynchronizationManager.initSynchronization();
+        List<NotificationOutbox.Pending> first = List.of(mock(NotificationOutbox.Pending.class));
+        List<NotificationOutbox.Pending> second = List.of(mock(NotificationOutbox.Pending.class));
+        when(notificationOutbox.stage(eq(1L), anyList())).thenReturn(first);
+        when(notificationOutbox.stage(eq(2L), anyList())).thenReturn(second);
+
+        notificationService.createNotification(user(1L), "a", "OFFICIAL_POST_COMMENT", 10L);
+        notificationService.createNotification(user(2L), "b", "OFFICIAL_COMMENT_REPLY", 10L);
+        notificationService.createNotification(user(1L), "c", "OFFICIAL_POST_COMMENT", 11L);
+        verifyNoInteractions(notificationOutbox);
+
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.beforeCommit(false);
+            verify(notificationOutbox, never()).release(anyList());
+            sync.afterCommit();
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        InOrder order = inOrder(notificationOutbox);
+        order.verify(notificationOutbox).stage(1L, List.of(
+                new NotificationOutbox.Draft("a", "OFFICIAL_POST_COMMENT", 10L),
+                new NotificationOutbox.Draft("c", "OFFICIAL_POST_COMMENT", 11L)));
+        order.verify(notificationOutbox).stage(2L, List.of(new NotificationOutbox.Draft("b", "OFFICIAL_COMMENT_REPLY", 10L)));
+        order.verify(notificationOutbox).release(first);
+        order.verify(notificationOutbox).release(second);
+        verify(notificationOutbox, never()).submit(anyLong(), any(), any(), any());
+        assertFalse(TransactionSynchronizationManager.hasResource(notificationService));
+    }
+
+    @Test
+    void testCreateNotification_RolledBack_ShouldDropNotification() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        notificationService.createNotification(user(1L), "a", "OFFICIAL_POST_COMMENT", 10L);
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verifyNoInteractions(notificationOutbox);
+        assertFalse(TransactionSynchronizationManager.hasResource(notificationService));
+    }
+
+    private static Notification notification(Long id, LocalDateTime timestamp) {
+        Notification n = new Notification();
+        n.setId(id);
+        n.setMessage("m" + id);
+        n.setTimestamp(timestamp);
+        return n;
+    }
+
+    @Test
+    void testGetNotificationsPage_MoreRowsThanPageSize_ShouldReturnCursor() {
+        LocalDateTime now = LocalDateTime.now();
+        when(notificationRepository.findFirstPageByRecipientId(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(notification(3L, now), notification(2L, now), notification(1L, now.minusMinutes(1))));
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationsPage(user(1L), List.of(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        verify(notificationRepository).findFirstPageByRecipientId(1L, Limit.of(3));
+
+        when(notificationRepository.findPageByRecipientIdBefore(eq(1L), eq(now), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(notification(1L, now.minusMinutes(1))));
+        CursorPage<NotificationDto> next = notificationService.getNotificationsPage(user(1L), List.of(), page.getNextCursor(), 2);
+
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetNotificationsPage_InvalidCursor_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.getNotificationsPage(user(1L), List.of(), "not-a-cursor", null));
+    }
+
+    @Test
+    void testGetUnreadCount_ShouldUseCountQuery() {
+        when(notificationRepository.countByRecipientIdAndIsReadFalse(1L)).thenReturn(4L);
+
+        assertEquals(4L, notificationService.getUnreadCount(user(1L), List.of()));
+        verify(notificationRepository, never()).findByRecipientIdAndIsReadFalseOrderByTimestampDesc(any());
+    }
+
+    @Test
+    void testMarkAsRead_Ids_ShouldRunOneScopedUpdate() {
+        MarkReadRequest request = new MarkReadRequest();
+        request.setIds(List.of(1L, 2L, 3L));
+        when(notificationRepository.countByRecipientIdAndIsReadFalse(1L)).thenReturn(2L);
+
+        assertEquals(2L, notificationService.markAsRead(user(1L), List.of(), request));
+        verify(notificationRepository).markReadByIds(1L, List.of(1L, 2L, 3L));
+        verify(notificationRepository, never()).findById(any());
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void testMarkAsRead_Watermark_ShouldMarkEverythingUpToIt() {
+        LocalDateTime now = LocalDateTime.now();
+        MarkReadRequest request = new MarkReadRequest();
+        request.setUpToTimestamp(now);
+        request.setUpToId(9L);
+
+        assertEquals(0L, notificationService.markAsRead(user(1L), List.of(), request));
+        verify(notificationRepository).markReadUpTo(1L, now, 9L);
+    }
+
+    @Test
+    void testMarkAsRead_EmptyRequest_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.markAsRead(user(1L), List.of(), new MarkReadRequest()));
+    }
+
+    private static Announcement announcement(Long id, LocalDateTime timestamp) {
+        Announcement a = new Announcement();
+        a.setId(id);
+        a.setForumId(5L);
+        a.setMessage("a" + id);
+        a.setRelatedEntityId(100L + id);
+        a.setTimestamp(timestamp);
+        return a;
+    }
+
+    @Test
+    void testAnnounce_ShouldStoreOneRowAndPushOnForumTopicAfterCommit() {
+        when(announcementRepository.save(any(Announcement.class))).thenAnswer(inv -> {
+            Announcement a = inv.getArgument(0);
+            a.setId(7L);
+            return a;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        notificationService.announce(5L, "New announcement: Exam", 42L);
+
+        verify(announcementRepository, times(1)).save(any(Announcement.class));
+        verifyNoInteractions(messagingTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(messagingTemplate).convertAndSend(eq("/topic/forums/5/announcements"), any(NotificationDto.class));
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    void testGetNotificationsPage_WithAnnouncements_ShouldMergeByTimeAndApplyWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        when(notificationRepository.findFirstPageByRecipientId(eq(1L), any(Limit.class)))
+                .thenReturn(List.of(notification(3L, now), notification(2L, now.minusMinutes(2))));
+        when(announcementRepository.findFirstPageByForumIdIn(eq(List.of(5L)), any(Limit.class)))
+                .thenReturn(List.of(announcement(9L, now.minusMinutes(1)), announcement(8L, now.minusMinutes(3))));
+        when(watermarkRepository.findByUserIdAndForumIdIn(1L, List.of(5L)))
+                .thenReturn(List.of(new AnnouncementWatermark(1L, 5L, 8L)));
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationsPage(user(1L), List.of(5L), null, 3);
+
+        assertEquals(List.of("m3", "a9", "m2"), page.getItems().stream().map(NotificationDto::getMessage).toList());
+        assertEquals(NotificationService.ANNOUNCEMENT_TYPE, page.getItems().get(1).getType());
+        assertFalse(page.getItems().get(1).isRead());
+        assertTrue(page.isHasMore());
+
+        when(notificationRepository.findPageByRecipientIdBefore(eq(1L), eq(now.minusMinutes(2)), eq(2L), any(Limit.class)))
+                .thenReturn(List.of());
+        when(announcementRepository.findPageByForumIdInBefore(eq(List.of(5L)), eq(now.minusMinutes(1)), eq(9L), any(Limit.class)))
+                .thenReturn(List.of(announcement(8L, now.minusMinutes(3))));
+        CursorPage<NotificationDto> next = notificationService.getNotificationsPage(user(1L), List.of(5L), page.getNextCursor(), 3);
+
+        assertEquals(1, next.getItems().size());
+        assertTrue(next.getItems().get(0).isRead());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void testGetNotificationsPage_AnnouncementsOfSeveralForums_ShouldUseEachForumsWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        Announcement other = announcement(7L, now.minusMinutes(2));
+        other.setForumId(6L);
+        when(notificationRepository.findFirstPageByRecipientId(eq(1L), any(Limit.class))).thenReturn(List.of());
+        when(announcementRepository.findFirstPageByForumIdIn(eq(List.of(5L, 6L)), any(Limit.class)))
+                .thenReturn(List.of(announcement(9L, now.minusMinutes(1)), other));
+        // Forum 5 was read up to 9; forum 6 never, even though its announcement is older
+        when(watermarkRepository.findByUserIdAndForumIdIn(1L, List.of(5L, 6L)))
+                .thenReturn(List.of(new AnnouncementWatermark(1L, 5L, 9L)));
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationsPage(user(1L), List.of(5L, 6L), null, 5);
+
+        assertTrue(page.getItems().get(0).isRead());
+        assertFalse(page.getItems().get(1).isRead());
+        assertEquals(6L, page.getItems().get(1).getForumId());
+    }
+
+    @Test
+    void testGetUnreadCount_WithForums_ShouldAddAnnouncementsAboveEachForumsWatermark() {
+        when(notificationRepository.countByRecipientIdAndIsReadFalse(1L)).thenReturn(4L);
+        when(announcementRepository.countUnread(1L, List.of(5L, 6L))).thenReturn(3L);
+
+        assertEquals(7L, notificationService.getUnreadCount(user(1L), List.of(5L, 6L)));
+    }
+
+    @Test
+    void testMarkAnnouncementsRead_ShouldOnlyAdvanceThatForum() {
+        when(announcementRepository.findById(9L)).thenReturn(Optional.of(announcement(9L, LocalDateTime.now())));
+
+        notificationService.markAnnouncementsRead(user(1L), 9L);
+
+        verify(watermarkRepository).advance(1L, 5L, 9L);
+        verify(watermarkRepository, never()).advanceUpTo(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void testMarkAsRead_AnnouncementWatermarkOnly_ShouldAdvanceEachForumUpToIt() {
+        MarkReadRequest request = new MarkReadRequest();
+        request.setAnnouncementUpToId(9L);
+
+        notificationService.markAsRead(user(1L), List.of(5L, 6L), request);
+
+        verify(watermarkRepository).advanceUpTo(1L, List.of(5L, 6L), 9L);
+        verify(notificationRepository, never()).markReadByIds(anyLong(), any());
+        verify(notificationRepository, never()).markReadUpTo(anyLong(), any(), anyLong());
+    }
+}
@@ -0,0 +1,80 @@
+package com.forum.service;
+
+import com.forum.dto.PostResponse;
+import com.forum.event.PostChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostResponseCacheTest {
+
+    private static PostResponse post(Long id, String content) {
+        PostResponse response = new PostResponse();
+        response.setId(id);
+        response.setTitle("Title");
+        response.setContent(content);
+        return response;
+    }
+
+    @Test
+    void testGet_ShouldLoadOnceAndRespectThreadLimits() {
+        PostResponseCache cache = new PostResponseCache();
+        AtomicInteger loads = new AtomicInteger();
+
+        PostResponse first = cache.get(1L, 6, 50, () -> { loads.incrementAndGet(); return post(1L, "a"); });
+        PostResponse second = cache.get(1L, 6, 50, () -> { loads.incrementAndGet(); return post(1L, "a"); });
+        cache.get(1L, 2, 50, () -> { loads.incrementAndGet(); return post(1L, "a"); });
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void testOnPostChanged_ShouldInvalidateOnlyThatPost() {
+        PostResponseCache cache = new PostResponseCache();
+        cache.get(1L, 6, 50, () -> post(1L, "a"));
+        cache.get(2L, 6, 50, () -> post(2L, "b"));
+
+        cache.onPostChanged(new PostChangedEvent(1L, 10L, PostChangedEvent.Change.COMMENT_ADDED));
+
+        assertEquals(1, cache.size());
+        PostResponse reloaded = cache.get(1L, 6, 50, () -> post(1L, "fresh"));
+        assertEquals("fresh", reloaded.getContent());
+    }
+
+    @Test
+    void testInvalidateDuringLoad_ShouldNotStoreStaleResponse() {
+        PostResponseCache cache = new PostResponseCache();
+        cache.get(1L, 6, 50, () -> {
+            cache.invalidate(1L);
+            return post(1L, "stale");
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testWeightLimit_ShouldEvictLeastRecentlyUsed() {
+        PostResponseCache cache = new PostResponseCache();
+        String body = "x".repeat(1000);
+        long entryWeight = PostResponseCache.weigh(post(1L, body));
+        ReflectionTestUtils.setField(cache, "maxWeightBytes", entryWeight * 2);
+
+        cache.get(1L, 6, 50, () -> post(1L, body));
+        cache.get(2L, 6, 50, () -> post(2L, body));
+        cache.get(1L, 6, 50, () -> post(1L, body));
+        cache.get(3L, 6, 50, () -> post(3L, body));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertTrue(cache.weightBytes() <= entryWeight * 2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(2L, 6, 50, () -> { loads.incrementAndGet(); return post(2L, body); });
+        assertEquals(1, loads.get());
+    }
+}
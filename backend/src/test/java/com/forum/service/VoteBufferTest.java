@@ -0,0 +1,114 @@
+package com.forum.service;
+
+import com.forum.dto.VoteResponse;
+import com.forum.event.PostChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteBufferTest {
+
+    private VoteBuffer voteBuffer;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        voteBuffer = new VoteBuffer();
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        ReflectionTestUtils.setField(voteBuffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(voteBuffer, "transactionManager", mock(PlatformTransactionManager.class));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        ReflectionTestUtils.setField(voteBuffer, "eventPublisher", eventPublisher);
+    }
+
+    @Test
+    void testRecord_ShouldToggleAndOverlayScoreForVoter() {
+        AtomicInteger storedReads = new AtomicInteger();
+
+        VoteResponse up = voteBuffer.record(VoteBuffer.Target.POST, 1L, 7L, 1, () -> {
+            storedReads.incrementAndGet();
+            return 0;
+        }, () -> 10);
+        assertEquals(11, up.getScore());
+        assertEquals(1, up.getUserVote());
+
+        // Switching to a downvote moves the score by two and reads the buffered vote, not the database
+        VoteResponse down = voteBuffer.record(VoteBuffer.Target.POST, 1L, 7L, -1, () -> {
+            storedReads.incrementAndGet();
+            return 0;
+        }, () -> 10);
+        assertEquals(9, down.getScore());
+        assertEquals(-1, down.getUserVote());
+        assertEquals(1, storedReads.get());
+
+        // Same value again withdraws the vote
+        VoteResponse withdrawn = voteBuffer.record(VoteBuffer.Target.POST, 1L, 7L, -1, () -> 0, () -> 10);
+        assertEquals(10, withdrawn.getScore());
+        assertEquals(0, withdrawn.getUserVote());
+        assertEquals(0, voteBuffer.pendingScoreDelta(VoteBuffer.Target.POST, 1L));
+    }
+
+    @Test
+    void testRecord_ExistingStoredVote_ShouldWithdrawIt() {
+        VoteResponse response = voteBuffer.record(VoteBuffer.Target.COMMENT, 3L, 7L, 1, () -> 1, () -> 5);
+
+        assertEquals(4, response.getScore());
+        assertEquals(0, response.getUserVote());
+    }
+
+    @Test
+    void testFlushFailure_ShouldKeepVotesBuffered() {
+        voteBuffer.record(VoteBuffer.Target.POST, 1L, 7L, 1, () -> 0, () -> 10);
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenThrow(new RuntimeException("db down"));
+
+        assertThrows(RuntimeException.class, () -> voteBuffer.flush());
+
+        assertEquals(1, voteBuffer.pendingCount());
+        assertEquals(1, voteBuffer.pendingScoreDelta(VoteBuffer.Target.POST, 1L));
+    }
+
+    @Test
+    void testFlush_ShouldPublishScoreOfEveryFlushedTarget() throws Exception {
+        voteBuffer.record(VoteBuffer.Target.COMMENT, 3L, 7L, 1, () -> 0, () -> 5);
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(3L));
+        ResultSet location = mock(ResultSet.class);
+        when(location.getLong("id")).thenReturn(3L);
+        when(location.getLong("post_id")).thenReturn(1L);
+        when(location.getLong("forum_id")).thenReturn(9L);
+        when(location.getInt("score")).thenReturn(6);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(2).processRow(location);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT c.id, c.post_id"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        voteBuffer.flush();
+
+        ArgumentCaptor<PostChangedEvent> event = ArgumentCaptor.forClass(PostChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(PostChangedEvent.Change.COMMENT_VOTED, event.getValue().change());
+        assertEquals(1L, event.getValue().postId());
+        assertEquals(9L, event.getValue().forumId());
+        assertEquals(3L, event.getValue().delta().getCommentId());
+        assertEquals(6, event.getValue().delta().getScore());
+        assertEquals(0, voteBuffer.pendingScoreDelta(VoteBuffer.Target.COMMENT, 3L));
+    }
+}
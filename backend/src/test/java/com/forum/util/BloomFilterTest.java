@@ -0,0 +1,49 @@
+package com.forum.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testAddedValues_AreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1 << 12, 5);
+        String[] ids = new String[200];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.add(ids[i]);
+        }
+
+        for (String id : ids) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    void testEmptyFilter_ContainsNothing() {
+        BloomFilter filter = new BloomFilter(64, 3);
+
+        assertFalse(filter.mightContain("anything"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void testFalsePositiveRate_StaysLowWhenSizedForLoad() {
+        BloomFilter filter = new BloomFilter(1 << 16, 5);
+        for (int i = 0; i < 5000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        // About 0.2% expected at 13 bits per entry and 5 hashes
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,33 @@
+package com.forum.util;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void testRoundTrip() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123000000);
+        String token = CursorCodec.encode(true, 42, now, 7L);
+
+        String[] parts = CursorCodec.decode(token, 4);
+
+        assertEquals("true", parts[0]);
+        assertEquals("42", parts[1]);
+        assertEquals(now, LocalDateTime.parse(parts[2]));
+        assertEquals("7", parts[3]);
+    }
+
+    @Test
+    void testDecodeWrongPartCount_ShouldFail() {
+        String token = CursorCodec.encode(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(token, 4));
+    }
+
+    @Test
+    void testDecodeGarbage_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not*base64!", 4));
+    }
+}
@@ -0,0 +1,44 @@
+package com.forum.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+    @Test
+    void testPutAndGet() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(10L, 1);
+        map.put(-3L, 2);
+
+        assertEquals(1, map.get(10L, -1));
+        assertEquals(2, map.get(-3L, -1));
+        assertEquals(-1, map.get(99L, -1));
+        assertTrue(map.containsKey(10L));
+        assertFalse(map.containsKey(99L));
+    }
+
+    @Test
+    void testOverwriteKeepsSize() {
+        LongIntMap map = new LongIntMap(2);
+        map.put(5L, 1);
+        map.put(5L, 7);
+
+        assertEquals(1, map.size());
+        assertEquals(7, map.get(5L, -1));
+    }
+
+    @Test
+    void testGrowBeyondExpectedSize() {
+        LongIntMap map = new LongIntMap(1);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31L, i);
+        }
+
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get(i * 31L, -1));
+        }
+    }
+}
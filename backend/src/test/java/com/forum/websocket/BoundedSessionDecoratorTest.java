@@ -0,0 +1,114 @@
+package com.forum.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedSessionDecoratorTest {
+
+    private OutboundSessionPolicy policy;
+    private WebSocketSession delegate;
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        policy = new OutboundSessionPolicy();
+        ReflectionTestUtils.setField(policy, "sendBufferSizeLimit", 10);
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("s1");
+        // The first write blocks until released, like a client that stopped reading
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            if (written.isEmpty()) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            written.add((String) message.getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    private Thread blockOnFirstWrite(WebSocketSession session) throws InterruptedException {
+        Thread writer = new Thread(() -> {
+            try {
+                session.sendMessage(new TextMessage("first"));
+            } catch (Exception ignored) {
+            }
+        });
+        writer.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        return writer;
+    }
+
+    @Test
+    void testSendMessage_Uncontended_ShouldWriteAndCount() throws Exception {
+        release.countDown();
+        WebSocketSession session = policy.decorate(delegate);
+
+        session.sendMessage(new TextMessage("a"));
+        session.sendMessage(new TextMessage("b"));
+
+        assertEquals(List.of("a", "b"), written);
+        assertEquals(1, policy.activeSessions());
+        assertEquals(0, policy.bufferedBytes());
+    }
+
+    @Test
+    void testSendMessage_DropOldest_ShouldKeepNewestWithinLimit() throws Exception {
+        ReflectionTestUtils.setField(policy, "overflow", OutboundSessionPolicy.Overflow.DROP_OLDEST);
+        WebSocketSession session = policy.decorate(delegate);
+        Thread writer = blockOnFirstWrite(session);
+
+        session.sendMessage(new TextMessage("aaaa"));
+        session.sendMessage(new TextMessage("bbbb"));
+        session.sendMessage(new TextMessage("cccc"));
+        assertEquals(8, policy.maxBufferedBytes());
+
+        release.countDown();
+        writer.join(5000);
+
+        assertEquals(List.of("first", "bbbb", "cccc"), written);
+        assertEquals(0, policy.bufferedBytes());
+        verify(delegate, never()).close(any());
+    }
+
+    @Test
+    void testSendMessage_Disconnect_ShouldThrowAndDropBuffered() throws Exception {
+        WebSocketSession session = policy.decorate(delegate);
+        Thread writer = blockOnFirstWrite(session);
+
+        session.sendMessage(new TextMessage("aaaa"));
+        session.sendMessage(new TextMessage("bbbb"));
+        assertThrows(SessionLimitExceededException.class, () -> session.sendMessage(new TextMessage("cccc")));
+        session.sendMessage(new TextMessage("dddd"));
+
+        release.countDown();
+        writer.join(5000);
+
+        assertEquals(List.of("first"), written);
+        assertEquals(0, policy.bufferedBytes());
+    }
+
+    @Test
+    void testRelease_ShouldStopTrackingSession() {
+        policy.decorate(delegate);
+
+        policy.release("s1");
+
+        assertEquals(0, policy.activeSessions());
+    }
+}
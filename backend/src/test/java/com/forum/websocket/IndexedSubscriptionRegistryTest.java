@@ -0,0 +1,125 @@
+package com.forum.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SubscriptionRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedSubscriptionRegistryTest {
+
+    private static Message<byte[]> frame(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static void subscribe(SubscriptionRegistry registry, String sessionId, String subscriptionId, String destination) {
+        registry.registerSubscription(frame(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId, destination));
+    }
+
+    private static MultiValueMap<String, String> find(SubscriptionRegistry registry, String destination) {
+        return registry.findSubscriptions(frame(SimpMessageType.MESSAGE, null, null, destination));
+    }
+
+    @Test
+    void testFind_ExactDestination_ShouldReturnOnlyItsSubscribers() {
+        IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+        subscribe(registry, "s1", "sub-0", "/queue/notifications-users1");
+        subscribe(registry, "s2", "sub-0", "/queue/notifications-users2");
+        subscribe(registry, "s2", "sub-1", "/topic/forums/1");
+        subscribe(registry, "s3", "sub-0", "/topic/forums/1");
+
+        MultiValueMap<String, String> queue = find(registry, "/queue/notifications-users1");
+        assertEquals(1, queue.size());
+        assertEquals(List.of("sub-0"), queue.get("s1"));
+
+        MultiValueMap<String, String> topic = find(registry, "/topic/forums/1");
+        assertEquals(2, topic.size());
+        assertEquals(List.of("sub-1"), topic.get("s2"));
+    }
+
+    @Test
+    void testUnsubscribeAndDisconnect_ShouldDropSubscriptions() {
+        IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+        subscribe(registry, "s1", "sub-0", "/topic/forums/1");
+        subscribe(registry, "s1", "sub-1", "/topic/posts/2");
+        subscribe(registry, "s2", "sub-0", "/topic/forums/1");
+
+        registry.unregisterSubscription(frame(SimpMessageType.UNSUBSCRIBE, "s1", "sub-0", null));
+        assertEquals(1, find(registry, "/topic/forums/1").size());
+
+        registry.unregisterAllSubscriptions("s1");
+        assertTrue(find(registry, "/topic/posts/2").isEmpty());
+        assertEquals(1, registry.destinationCount());
+    }
+
+    @Test
+    void testFind_PatternSubscription_ShouldStillMatch() {
+        IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+        subscribe(registry, "s1", "sub-0", "/topic/forums/*");
+        subscribe(registry, "s2", "sub-0", "/topic/forums/1");
+
+        MultiValueMap<String, String> result = find(registry, "/topic/forums/1");
+        assertEquals(2, result.size());
+
+        registry.unregisterAllSubscriptions("s1");
+        assertEquals(1, find(registry, "/topic/forums/1").size());
+    }
+
+    @Test
+    void testFind_TenThousandSessions_ShouldResolveEachUserQueue() {
+        IndexedSubscriptionRegistry registry = new IndexedSubscriptionRegistry();
+        for (int i = 0; i < 10_000; i++) {
+            subscribe(registry, "s" + i, "sub-0", "/queue/notifications-users" + i);
+        }
+
+        for (int i = 0; i < 10_000; i += 997) {
+            MultiValueMap<String, String> result = find(registry, "/queue/notifications-users" + i);
+            assertEquals(1, result.size());
+            assertTrue(result.containsKey("s" + i));
+        }
+    }
+
+    /**
+     * Broker fan-out cost of per-session user queues at 10k connected sessions.
+     * Run with {@code mvn test -Dtest=IndexedSubscriptionRegistryTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkUserQueueFanOut() {
+        int sessions = 10_000;
+        int sends = 200_000;
+        for (SubscriptionRegistry registry : List.of(new DefaultSubscriptionRegistry(), new IndexedSubscriptionRegistry())) {
+            for (int i = 0; i < sessions; i++) {
+                subscribe(registry, "s" + i, "sub-0", "/queue/notifications-users" + i);
+                subscribe(registry, "s" + i, "sub-1", "/topic/forums/" + (i % 50));
+            }
+            List<Message<byte[]>> messages = new java.util.ArrayList<>();
+            for (int i = 0; i < sessions; i++) {
+                messages.add(frame(SimpMessageType.MESSAGE, null, null, "/queue/notifications-users" + i));
+            }
+            long matched = 0;
+            for (int i = 0; i < sends / 10; i++) {
+                matched += registry.findSubscriptions(messages.get((i * 7919) % sessions)).size();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < sends; i++) {
+                matched += registry.findSubscriptions(messages.get((i * 7919) % sessions)).size();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %d sessions, %.0f ns per user-queue send (%d matched)%n",
+                    registry.getClass().getSimpleName(), sessions, (double) elapsed / sends, matched);
+        }
+    }
+}
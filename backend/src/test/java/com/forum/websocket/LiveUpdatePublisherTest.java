@@ -0,0 +1,144 @@
+package com.forum.websocket;
+
+import com.forum.dto.ForumDelta;
+import com.forum.event.PostChangedEvent;
+import com.forum.service.ScoreReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveUpdatePublisherTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ScoreReader scoreReader;
+
+    @InjectMocks
+    private LiveUpdatePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(publisher, "minIntervalMs", 200L);
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    private static PostChangedEvent event(PostChangedEvent.Change change, Long commentId, Integer score) {
+        ForumDelta delta = new ForumDelta();
+        delta.setType(change.name());
+        delta.setForumId(1L);
+        delta.setPostId(10L);
+        delta.setCommentId(commentId);
+        delta.setScore(score);
+        return new PostChangedEvent(10L, 1L, change, delta);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<ForumDelta>> frames(String topic, int times) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2000).times(times)).convertAndSend(eq(topic), captor.capture());
+        return captor.getAllValues().stream().map(f -> (List<ForumDelta>) f).toList();
+    }
+
+    @Test
+    void testOnPostChanged_FirstChangeIsSentImmediatelyToPostAndForumTopics() {
+        publisher.onPostChanged(event(PostChangedEvent.Change.VOTED, null, 3));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/10"), any(Object.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/forums/1"), any(Object.class));
+    }
+
+    @Test
+    void testOnPostChanged_VotesWithinIntervalAreCoalescedToLatestScore() {
+        publisher.onPostChanged(event(PostChangedEvent.Change.VOTED, null, 1));
+        publisher.onPostChanged(event(PostChangedEvent.Change.VOTED, null, 2));
+        publisher.onPostChanged(event(PostChangedEvent.Change.VOTED, null, 3));
+        publisher.onPostChanged(event(PostChangedEvent.Change.VOTED, null, 4));
+
+        List<List<ForumDelta>> frames = frames("/topic/posts/10", 2);
+        assertEquals(1, frames.get(0).get(0).getScore());
+        assertEquals(1, frames.get(1).size());
+        assertEquals(4, frames.get(1).get(0).getScore());
+    }
+
+    @Test
+    void testOnPostChanged_LateVoteEvent_ShouldSendScoreReadAfterCommit() {
+        // The second vote committed first; its listener ran last with the score it read in its transaction
+        when(scoreReader.currentScore(any(ForumDelta.class))).thenReturn(Optional.of(5), Optional.of(7));
+
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_VOTED, 2L, 6));
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_VOTED, 2L, 5));
+
+        List<List<ForumDelta>> frames = frames("/topic/posts/10", 2);
+        assertEquals(5, frames.get(0).get(0).getScore());
+        assertEquals(7, frames.get(1).get(0).getScore());
+    }
+
+    @Test
+    void testOnPostChanged_CommentAdditionsAreNotCoalesced() {
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_ADDED, 1L, null));
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_ADDED, 2L, null));
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_ADDED, 3L, null));
+
+        List<List<ForumDelta>> frames = frames("/topic/posts/10", 2);
+        assertEquals(1, frames.get(0).size());
+        assertEquals(2, frames.get(1).size());
+    }
+
+    @Test
+    void testOnPostChanged_CommentVotesStayOffForumTopic() {
+        publisher.onPostChanged(event(PostChangedEvent.Change.COMMENT_VOTED, 5L, 2));
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/10"), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/forums/1"), any(Object.class));
+    }
+
+    @Test
+    void testOnPostChanged_WithoutDelta_ShouldSendNothing() {
+        publisher.onPostChanged(new PostChangedEvent(10L, 1L, PostChangedEvent.Change.VOTED));
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void testForumView_StripsCommentBody() {
+        ForumDelta delta = event(PostChangedEvent.Change.COMMENT_ADDED, 7L, null).delta();
+        delta.setContent("Long comment body");
+
+        ForumDelta view = LiveUpdatePublisher.forumView(delta);
+
+        assertEquals(7L, view.getCommentId());
+        assertNull(view.getContent());
+        assertNull(view.getComment());
+    }
+
+    @Test
+    void testSweep_RemovesIdleTopics() throws InterruptedException {
+        publisher.onPostChanged(event(PostChangedEvent.Change.DELETED, null, null));
+        assertEquals(2, publisher.bufferedTopics());
+
+        Thread.sleep(250);
+        publisher.sweep();
+
+        assertEquals(0, publisher.bufferedTopics());
+    }
+}
@@ -0,0 +1,146 @@
+package com.forum.websocket;
+
+import com.forum.security.jwt.JwtUtils;
+import com.forum.security.services.RevocationList;
+import com.forum.security.services.SecurityVersions;
+import com.forum.security.services.UserDetailsImpl;
+import com.forum.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StompAuthChannelInterceptorTest {
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private RevocationList revocationList;
+
+    @Mock
+    private SecurityVersions securityVersions;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static Message<byte[]> frame(StompHeaderAccessor accessor) {
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void testConnect_ValidToken_ShouldSetUserIdPrincipal() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        UserDetailsImpl user = mock(UserDetailsImpl.class);
+        when(user.getId()).thenReturn(7L);
+        when(jwtUtils.parseClaims("token")).thenReturn(Jwts.claims().setSubject("student@univ.edu").setId("jti"));
+        when(userDetailsService.loadUserByUsername("student@univ.edu")).thenReturn(user);
+
+        Message<?> result = interceptor.preSend(frame(accessor), channel);
+
+        StompHeaderAccessor out = StompHeaderAccessor.wrap(result);
+        assertNotNull(out.getUser());
+        assertEquals("7", out.getUser().getName());
+    }
+
+    @Test
+    void testConnect_MissingToken_ShouldBeRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(frame(accessor), channel));
+    }
+
+    @Test
+    void testConnect_RevokedToken_ShouldBeRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        when(jwtUtils.parseClaims("token")).thenReturn(Jwts.claims().setSubject("student@univ.edu").setId("jti"));
+        when(revocationList.isRevoked("jti")).thenReturn(true);
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(frame(accessor), channel));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void testSubscribe_RawSessionQueue_ShouldBeRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/queue/notifications-user1a2b");
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(frame(accessor), channel));
+    }
+
+    @Test
+    void testConnect_CurrentTokenVersion_ShouldUseClaimsWithoutLookup() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        Claims claims = Jwts.claims().setSubject("student@univ.edu").setId("jti");
+        when(jwtUtils.parseClaims("token")).thenReturn(claims);
+        when(jwtUtils.getPrincipal(claims)).thenReturn(UserDetailsImpl.fromToken(7L, "student@univ.edu", "ROLE_STUDENT", 3));
+        when(securityVersions.isCurrent(7L, 3)).thenReturn(true);
+
+        Message<?> result = interceptor.preSend(frame(accessor), channel);
+
+        assertEquals("7", StompHeaderAccessor.wrap(result).getUser().getName());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testConnect_StaleTokenVersion_ShouldBeRejected() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        Claims claims = Jwts.claims().setSubject("student@univ.edu").setId("jti");
+        when(jwtUtils.parseClaims("token")).thenReturn(claims);
+        when(jwtUtils.getPrincipal(claims)).thenReturn(UserDetailsImpl.fromToken(7L, "student@univ.edu", "ROLE_STUDENT", 2));
+        when(securityVersions.isCurrent(7L, 2)).thenReturn(false);
+
+        assertThrows(MessagingException.class, () -> interceptor.preSend(frame(accessor), channel));
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private void subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        interceptor.preSend(frame(accessor), channel);
+    }
+
+    @Test
+    void testSubscribe_WildcardPatterns_ShouldBeRejected() {
+        assertThrows(MessagingException.class, () -> subscribe("/queue*/**"));
+        assertThrows(MessagingException.class, () -> subscribe("/queue**"));
+        assertThrows(MessagingException.class, () -> subscribe("/**"));
+        assertThrows(MessagingException.class, () -> subscribe("/topic/posts/*"));
+        assertThrows(MessagingException.class, () -> subscribe("/user/queue/**"));
+    }
+
+    @Test
+    void testSubscribe_OwnQueueAndExactTopics_ShouldBeAllowed() {
+        assertDoesNotThrow(() -> subscribe("/user/queue/notifications"));
+        assertDoesNotThrow(() -> subscribe("/topic/forums/5/announcements"));
+        assertDoesNotThrow(() -> subscribe("/topic/posts/10"));
+        assertThrows(MessagingException.class, () -> subscribe("/queuex/notifications"));
+    }
+}
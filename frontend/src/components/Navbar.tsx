@@ -1,7 +1,8 @@
 import React, { useEffect, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import AuthService from '../services/auth.service';
-import NotificationService, { type NotificationDto } from '../services/notification.service';
+import NotificationService, { isAnnouncement, type NotificationDto } from '../services/notification.service';
+import ForumService from '../services/forum.service';
 import { Button } from './ui/button';
 import { 
     DropdownMenu, 
@@ -17,6 +18,10 @@ import { Client } from '@stomp/stompjs';
 
 import SockJS from 'sockjs-client';
 
+// Notifications and announcements have separate id sequences
+const sameItem = (a: NotificationDto, b: NotificationDto) =>
+    a.id === b.id && isAnnouncement(a) === isAnnouncement(b);
+
 /**
  * Navigation bar component.
  * Displays user info, notifications, and navigation links.
@@ -26,6 +31,8 @@ const Navbar: React.FC = () => {
     const navigate = useNavigate();
     const user = AuthService.getCurrentUser();
     const [notifications, setNotifications] = useState<NotificationDto[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [unreadCount, setUnreadCount] = useState(0);
     const [theme, setTheme] = useState<"light" | "dark">("light");
 
     useEffect(() => {
@@ -55,18 +62,43 @@ const Navbar: React.FC = () => {
 
         
         NotificationService.getUserNotifications().then(res => {
-            setNotifications(res.data.sort((a, b) => new Date(b.timestamp).getTime() - new Date(a.timestamp).getTime()));
+            setNotifications(res.data.items);
+            setNextCursor(res.data.nextCursor);
         }).catch(err => console.error("Failed to fetch notifications", err));
 
+        NotificationService.getUnreadCount().then(res => {
+            setUnreadCount(res.data.count);
+        }).catch(err => console.error("Failed to fetch unread count", err));
+
         
         const socket = new SockJS('http://localhost:8080/ws');
         const stompClient = new Client({
             webSocketFactory: () => socket,
+            connectHeaders: { Authorization: `Bearer ${user.token}` },
+            // Access tokens are short-lived, so reconnects pick up the latest refreshed one
+            beforeConnect: () => {
+                const current = AuthService.getCurrentUser();
+                if (current) {
+                    stompClient.connectHeaders = { Authorization: `Bearer ${current.token}` };
+                }
+            },
             onConnect: () => {
-                stompClient.subscribe(`/topic/notifications/${user.id}`, (message) => {
-                    const newNotification = JSON.parse(message.body);
-                    setNotifications(prev => [newNotification, ...prev]);
-                });
+                const onPush = (message: { body: string }) => {
+                    const newNotification: NotificationDto = JSON.parse(message.body);
+                    // Coalesced repeats arrive again under the same id with a higher count
+                    setNotifications(prev => [newNotification, ...prev.filter(n => !sameItem(n, newNotification))]);
+                    NotificationService.getUnreadCount().then(res => {
+                        setUnreadCount(res.data.count);
+                    }).catch(err => console.error("Failed to fetch unread count", err));
+                };
+                stompClient.subscribe('/user/queue/notifications', onPush);
+
+                // Announcements are broadcast once per forum rather than queued per student
+                if (user.role === 'STUDENT') {
+                    ForumService.getForums().then(forums => {
+                        forums.forEach(forum => stompClient.subscribe(`/topic/forums/${forum.id}/announcements`, onPush));
+                    }).catch(err => console.error("Failed to subscribe to announcements", err));
+                }
             },
             
         });
@@ -86,8 +118,18 @@ const Navbar: React.FC = () => {
     const handleNotificationClick = async (notification: NotificationDto) => {
         if (!notification.read) {
             try {
-                await NotificationService.markAsRead(notification.id);
-                setNotifications(prev => prev.map(n => n.id === notification.id ? { ...n, read: true } : n));
+                if (isAnnouncement(notification)) {
+                    // Announcements are read up to a per-forum watermark, so older ones of the same forum become read too
+                    await NotificationService.markAnnouncementAsRead(notification.id);
+                    setNotifications(prev => prev.map(n => isAnnouncement(n) && n.forumId === notification.forumId && n.id <= notification.id
+                        ? { ...n, read: true } : n));
+                    const res = await NotificationService.getUnreadCount();
+                    setUnreadCount(res.data.count);
+                } else {
+                    await NotificationService.markAsRead(notification.id);
+                    setNotifications(prev => prev.map(n => sameItem(n, notification) ? { ...n, read: true } : n));
+                    setUnreadCount(prev => Math.max(0, prev - 1));
+                }
             } catch (error) {
                 console.error("Failed to mark notification as read", error);
             }
@@ -97,11 +139,32 @@ const Navbar: React.FC = () => {
         }
     };
 
+    const handleMarkAllAsRead = async () => {
+        if (notifications.length === 0) return;
+        try {
+            const res = await NotificationService.markAllAsRead(notifications);
+            setNotifications(prev => prev.map(n => ({ ...n, read: true })));
+            setUnreadCount(res.data.count);
+        } catch (error) {
+            console.error("Failed to mark notifications as read", error);
+        }
+    };
+
+    const loadMoreNotifications = async () => {
+        if (!nextCursor) return;
+        try {
+            const res = await NotificationService.getUserNotifications(nextCursor);
+            setNotifications(prev => [...prev, ...res.data.items]);
+            setNextCursor(res.data.nextCursor);
+        } catch (error) {
+            console.error("Failed to fetch notifications", error);
+        }
+    };
+
     if (!user) return null;
 
     const initials = `${user.firstName?.charAt(0) || ''}${user.lastName?.charAt(0) || ''}`.toUpperCase() || 'U';
     const fullName = `${user.firstName || 'User'} ${user.lastName || ''}`.trim();
-    const unreadCount = notifications.filter(n => !n.read).length;
 
     return (
         <nav className="border-b bg-background">
@@ -129,7 +192,17 @@ const Navbar: React.FC = () => {
                             </Button>
                         </DropdownMenuTrigger>
                         <DropdownMenuContent className="w-80 max-h-96 overflow-y-auto" align="end" forceMount>
-                            <DropdownMenuLabel>Notifications</DropdownMenuLabel>
+                            <DropdownMenuLabel className="flex items-center justify-between">
+                                Notifications
+                                {unreadCount > 0 && (
+                                    <button
+                                        className="text-xs font-normal text-muted-foreground hover:underline"
+                                        onClick={handleMarkAllAsRead}
+                                    >
+                                        Mark all as read
+                                    </button>
+                                )}
+                            </DropdownMenuLabel>
                             <DropdownMenuSeparator />
                             {notifications.length === 0 ? (
                                 <div className="p-4 text-center text-sm text-muted-foreground">
@@ -138,12 +211,17 @@ const Navbar: React.FC = () => {
                             ) : (
                                 notifications.map(notification => (
                                     <DropdownMenuItem 
-                                        key={notification.id} 
+                                        key={`${notification.type}-${notification.id}`} 
                                         onClick={() => handleNotificationClick(notification)}
                                         className="cursor-pointer"
                                     >
                                         <div className={`flex flex-col gap-1 w-full ${!notification.read ? 'font-semibold bg-slate-50 dark:bg-slate-800 rounded p-1' : ''}`}>
-                                            <span className="text-sm">{notification.message}</span>
+                                            <span className="text-sm">
+                                                {notification.message}
+                                                {notification.count > 1 && (
+                                                    <span className="ml-1 text-xs text-muted-foreground">({notification.count})</span>
+                                                )}
+                                            </span>
                                             <span className="text-xs text-muted-foreground">
                                                 {new Date(notification.timestamp).toLocaleString()}
                                             </span>
@@ -151,6 +229,14 @@ const Navbar: React.FC = () => {
                                     </DropdownMenuItem>
                                 ))
                             )}
+                            {nextCursor && (
+                                <DropdownMenuItem
+                                    onSelect={(e) => { e.preventDefault(); loadMoreNotifications(); }}
+                                    className="cursor-pointer justify-center text-sm text-muted-foreground"
+                                >
+                                    Load more
+                                </DropdownMenuItem>
+                            )}
                         </DropdownMenuContent>
                     </DropdownMenu>
 
@@ -20,15 +20,25 @@ interface CommentItemProps {
     onReply: (parentId: number, content: string) => Promise<void>;
     onDelete: (commentId: number) => Promise<void>;
     onEdit: (commentId: number, content: string) => Promise<void>;
+    onLoadMoreReplies: (comment: Comment) => Promise<void>;
 }
 
-const CommentItem: React.FC<CommentItemProps> = ({ comment, level, isAdmin, currentUserId, onVote, onReply, onDelete, onEdit }) => {
+/**
+ * Returns a copy of the tree in which the comment with the given id is replaced by update(comment).
+ */
+const replaceComment = (comments: Comment[], id: number, update: (comment: Comment) => Comment): Comment[] =>
+    comments.map(c => c.id === id
+        ? update(c)
+        : c.replies ? { ...c, replies: replaceComment(c.replies, id, update) } : c);
+
+const CommentItem: React.FC<CommentItemProps> = ({ comment, level, isAdmin, currentUserId, onVote, onReply, onDelete, onEdit, onLoadMoreReplies }) => {
     const [areRepliesHidden, setAreRepliesHidden] = useState(false);
     const [isReplying, setIsReplying] = useState(false);
     const [isEditing, setIsEditing] = useState(false);
     const [replyContent, setReplyContent] = useState('');
     const [editContent, setEditContent] = useState(comment.content);
     const hasReplies = comment.replies && comment.replies.length > 0;
+    const unloadedReplies = comment.replyCount - (comment.replies?.length || 0);
     const isAuthor = currentUserId === comment.author.id;
 
     /**
@@ -129,7 +139,7 @@ const CommentItem: React.FC<CommentItemProps> = ({ comment, level, isAdmin, curr
                             >
                                 {areRepliesHidden ? (
                                     <>
-                                        <ChevronDown className="h-4 w-4" /> Show Replies ({comment.replies!.length})
+                                        <ChevronDown className="h-4 w-4" /> Show Replies ({comment.replyCount})
                                     </>
                                 ) : (
                                     <>
@@ -169,10 +179,21 @@ const CommentItem: React.FC<CommentItemProps> = ({ comment, level, isAdmin, curr
                             onReply={onReply}
                             onDelete={onDelete}
                             onEdit={onEdit}
+                            onLoadMoreReplies={onLoadMoreReplies}
                         />
                     ))}
                 </div>
             )}
+            {comment.repliesCursor && unloadedReplies > 0 && !areRepliesHidden && (
+                <Button
+                    variant="ghost"
+                    size="sm"
+                    className="mt-2 ml-8 h-8 text-muted-foreground"
+                    onClick={() => onLoadMoreReplies(comment)}
+                >
+                    Load {unloadedReplies} more {unloadedReplies === 1 ? 'reply' : 'replies'}
+                </Button>
+            )}
         </div>
     );
 };
@@ -234,6 +255,37 @@ const PostDetail: React.FC = () => {
         }
     };
 
+    const handleLoadMoreComments = async () => {
+        if (!post?.commentsCursor) return;
+        try {
+            const page = await ForumService.getCommentThread(post.id, post.commentsCursor);
+            setPost(prev => prev && {
+                ...prev,
+                comments: [...(prev.comments || []), ...page.items],
+                commentsCursor: page.nextCursor
+            });
+        } catch (error) {
+            showAlert('Failed to load comments', 'Error');
+        }
+    };
+
+    const handleLoadMoreReplies = async (comment: Comment) => {
+        if (!post || !comment.repliesCursor) return;
+        try {
+            const page = await ForumService.getCommentThread(post.id, comment.repliesCursor);
+            setPost(prev => prev && {
+                ...prev,
+                comments: replaceComment(prev.comments || [], comment.id, c => ({
+                    ...c,
+                    replies: [...(c.replies || []), ...page.items],
+                    repliesCursor: page.nextCursor
+                }))
+            });
+        } catch (error) {
+            showAlert('Failed to load replies', 'Error');
+        }
+    };
+
     const handleDeletePost = async () => {
         setDeleteConfirmation({ type: 'post', id: post!.id });
     };
@@ -364,7 +416,7 @@ const PostDetail: React.FC = () => {
                     </Card>
 
                     <div className="space-y-6">
-                        <h3 className="text-xl font-semibold">Comments ({post.comments?.length || 0} threads)</h3>
+                        <h3 className="text-xl font-semibold">Comments ({post.commentCount})</h3>
                         
                         <div className="mb-6 flex gap-2">
                             <Textarea 
@@ -388,8 +440,15 @@ const PostDetail: React.FC = () => {
                                     onReply={handleAddComment}
                                     onDelete={handleDeleteComment}
                                     onEdit={handleEditComment}
+                                    onLoadMoreReplies={handleLoadMoreReplies}
                                 />
                             ))}
+
+                            {post.commentsCursor && (
+                                <Button variant="outline" className="w-full" onClick={handleLoadMoreComments}>
+                                    Load more comments
+                                </Button>
+                            )}
                             
                             {(!post.comments || post.comments.length === 0) && (
                                 <p className="text-muted-foreground text-center py-8">No comments yet. Be the first to share your thoughts!</p>
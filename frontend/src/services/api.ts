@@ -26,4 +26,55 @@ api.interceptors.request.use(config => {
     return config;
 });
 
+let refreshing: Promise<string> | null = null;
+
+/**
+ * Posts the stored refresh token unless another tab has already replaced it since this tab
+ * last read it, in which case that tab's access token is used.
+ */
+const refreshStoredToken = async (spent: string | undefined): Promise<string> => {
+    const user = JSON.parse(localStorage.getItem('user') || 'null');
+    if (user?.refreshToken && user.refreshToken !== spent) {
+        return user.token as string;
+    }
+    const response = await axios.post(API_URL + '/auth/refresh', { refreshToken: user?.refreshToken });
+    localStorage.setItem('user', JSON.stringify({ ...user, ...response.data }));
+    return response.data.token as string;
+};
+
+/**
+ * Exchanges the stored refresh token for new tokens. Concurrent 401s share one request,
+ * since each refresh token can only be used once. Tabs share the stored token, so they
+ * take turns through a Web Lock and a tab that waited reuses the other tab's result.
+ */
+const refreshAccessToken = (): Promise<string> => {
+    if (!refreshing) {
+        const spent = JSON.parse(localStorage.getItem('user') || 'null')?.refreshToken;
+        const refresh = () => refreshStoredToken(spent);
+        refreshing = (navigator.locks ? navigator.locks.request('forum-token-refresh', refresh) : refresh())
+            .finally(() => {
+                refreshing = null;
+            });
+    }
+    return refreshing;
+};
+
+api.interceptors.response.use(undefined, async error => {
+    const config = error.config;
+    if (error.response?.status !== 401 || !config || config._retried || config.url?.includes('/auth/')
+        || !localStorage.getItem('user')) {
+        return Promise.reject(error);
+    }
+    config._retried = true;
+    try {
+        const token = await refreshAccessToken();
+        config.headers.Authorization = 'Bearer ' + token;
+        return api(config);
+    } catch {
+        localStorage.removeItem('user');
+        window.location.href = "/login";
+        return Promise.reject(error);
+    }
+});
+
 export default api;
@@ -2,6 +2,7 @@ import api from './api';
 
 export interface User {
     token: string;
+    refreshToken?: string;
     id: number;
     email: string;
     firstName: string;
@@ -36,11 +37,17 @@ const login = async (email: string, password: string) => {
 };
 
 /**
- * Logs out the current user.
+ * Logs out the current user and revokes their tokens on the server.
  */
 const logout = () => {
+    const user = getCurrentUser();
     localStorage.removeItem('user');
-    window.location.href = "/login"; 
+    const revoke = user?.refreshToken
+        ? api.post('/auth/logout', { refreshToken: user.refreshToken }).catch(() => undefined)
+        : Promise.resolve();
+    revoke.finally(() => {
+        window.location.href = "/login";
+    });
 };
 
 /**
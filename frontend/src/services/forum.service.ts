@@ -29,6 +29,10 @@ export interface Post {
     pinned: boolean;
     score: number;
     comments?: Comment[];
+    /** Total comments at any depth; `comments` may hold only the first slice. */
+    commentCount: number;
+    /** Continues the top-level comments, or null once they are all loaded. */
+    commentsCursor?: string | null;
 }
 
 export interface Comment {
@@ -41,6 +45,16 @@ export interface Comment {
     score: number;
     parentId?: number;
     replies?: Comment[];
+    /** Number of direct replies, loaded or not. */
+    replyCount: number;
+    /** Continues the replies, or null once they are all loaded. */
+    repliesCursor?: string | null;
+}
+
+export interface CommentPage {
+    items: Comment[];
+    nextCursor: string | null;
+    hasMore: boolean;
 }
 
 /**
@@ -69,6 +83,16 @@ const getPost = async (postId: number) => {
     return response.data;
 };
 
+/**
+ * Retrieves the next slice of a post's comments or of one comment's replies.
+ * @param postId The ID of the post
+ * @param cursor A commentsCursor, repliesCursor or nextCursor returned earlier
+ */
+const getCommentThread = async (postId: number, cursor: string) => {
+    const response = await api.get<CommentPage>(`/forums/posts/${postId}/comments`, { params: { cursor } });
+    return response.data;
+};
+
 /**
  * Creates a new post in a forum.
  * @param forumId The ID of the forum
@@ -145,6 +169,7 @@ export default {
     getForums,
     getPosts,
     getPost,
+    getCommentThread,
     createPost,
     addComment,
     votePost,
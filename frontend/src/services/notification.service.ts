@@ -7,6 +7,20 @@ export interface NotificationDto {
     relatedEntityId: number;
     read: boolean;
     timestamp: string;
+    count: number;
+    /** Set on announcements, which are read per forum */
+    forumId?: number;
+}
+
+/** Type of forum-wide announcements, which are merged into the inbox and have their own ids. */
+export const ANNOUNCEMENT_TYPE = 'ANNOUNCEMENT';
+
+export const isAnnouncement = (n: NotificationDto) => n.type === ANNOUNCEMENT_TYPE;
+
+export interface NotificationPage {
+    items: NotificationDto[];
+    nextCursor: string | null;
+    hasMore: boolean;
 }
 
 /**
@@ -14,10 +28,18 @@ export interface NotificationDto {
  */
 class NotificationService {
     /**
-     * Retrieves all notifications for the current user.
+     * Retrieves one page of notifications for the current user, newest first.
+     * @param cursor The cursor returned with the previous page
+     */
+    getUserNotifications(cursor?: string) {
+        return api.get<NotificationPage>('/notifications', { params: cursor ? { cursor } : {} });
+    }
+
+    /**
+     * Retrieves the number of unread notifications for the current user.
      */
-    getUserNotifications() {
-        return api.get<NotificationDto[]>('/notifications');
+    getUnreadCount() {
+        return api.get<{ count: number }>('/notifications/unread-count');
     }
 
     /**
@@ -27,6 +49,28 @@ class NotificationService {
     markAsRead(id: number) {
         return api.post(`/notifications/${id}/read`);
     }
+
+    /**
+     * Marks an announcement and every older one as read.
+     * @param id The ID of the announcement
+     */
+    markAnnouncementAsRead(id: number) {
+        return api.post(`/notifications/announcements/${id}/read`);
+    }
+
+    /**
+     * Marks every loaded notification and announcement as read, up to the newest of each.
+     * @param items The inbox items the user has seen, newest first
+     */
+    markAllAsRead(items: NotificationDto[]) {
+        const newest = items.find(n => !isAnnouncement(n));
+        const newestAnnouncement = items.find(isAnnouncement);
+        return api.post<{ count: number }>('/notifications/read', {
+            upToTimestamp: newest?.timestamp,
+            upToId: newest?.id,
+            announcementUpToId: newestAnnouncement?.id,
+        });
+    }
 }
 
 export default new NotificationService();